@@ -2,8 +2,10 @@ package pe.idat.dsi.dcn.authserver;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class AuthserverApplication {
 
 	public static void main(String[] args) {
@@ -3,8 +3,10 @@ package pe.idat.dsi.dcn.authserver.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -13,6 +15,8 @@ import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 public class SecurityConfig {
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
+
     @Autowired
     private AuthenticationConfiguration authenticationConfiguration;
 
@@ -25,7 +29,21 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // Bulk creation is for administrators, and the only endpoint that takes basic credentials: the login filter issues
+    // tokens but nothing here reads them back
+    @Bean
+    @Order(1)
+    SecurityFilterChain bulkUsersFilterChain(HttpSecurity http) throws Exception {
+        return http.securityMatcher("/api/users/bulk")
+            .authorizeHttpRequests((auth) -> auth.anyRequest().hasAuthority(ADMIN_ROLE))
+            .httpBasic(Customizer.withDefaults())
+            .csrf(config -> config.disable())
+            .sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .build();
+    }
+
     @Bean
+    @Order(2)
     SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http.authorizeHttpRequests((auth) -> 
             auth.requestMatchers("/api/users", "/api/roles").permitAll()
@@ -35,4 +53,4 @@ public class SecurityConfig {
             .sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                     .build();
     }
-}
+}
\ No newline at end of file
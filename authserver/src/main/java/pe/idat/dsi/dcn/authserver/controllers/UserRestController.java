@@ -1,8 +1,11 @@
 package pe.idat.dsi.dcn.authserver.controllers;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,7 +15,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import pe.idat.dsi.dcn.authserver.config.SecurityConfig;
 import pe.idat.dsi.dcn.authserver.models.User;
 import pe.idat.dsi.dcn.authserver.services.UserService;
 
@@ -20,10 +26,14 @@ import pe.idat.dsi.dcn.authserver.services.UserService;
 @RequestMapping("/api/users")
 public class UserRestController {
 
+    private static final int MAX_BULK_SIZE = 1000;
+
     private UserService userService;
+    private Validator validator;
 
-    public UserRestController(UserService userService) {
+    public UserRestController(UserService userService, Validator validator) {
         this.userService = userService;
+        this.validator = validator;
     }
 
     @GetMapping()
@@ -37,10 +47,52 @@ public class UserRestController {
             return validation(result);
         }
 
+        // Registration is open, so it cannot hand out the role that guards /api/users/bulk
+        if(user.getRolesName() != null && user.getRolesName().stream().anyMatch(SecurityConfig.ADMIN_ROLE::equalsIgnoreCase)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("El rol " + SecurityConfig.ADMIN_ROLE + " no se puede asignar al registrarse");
+        }
+
         return ResponseEntity.status(HttpStatus.CREATED)
             .body(this.userService.save(user));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createAll(@RequestBody List<User> users) {
+        if(users.isEmpty() || users.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().body("Se deben enviar entre 1 y " + MAX_BULK_SIZE + " usuarios");
+        }
+
+        // Nothing is inserted unless every user in the request is valid
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+
+            for (ConstraintViolation<User> violation : this.validator.validate(user)) {
+                String field = violation.getPropertyPath().toString();
+                errors.put("[" + i + "]." + field, "El campo " + field + " " + violation.getMessage());
+            }
+
+            if(user.getUsername() != null && !usernames.add(user.getUsername().toLowerCase())) {
+                errors.put("[" + i + "].username", "El usuario " + user.getUsername() + " esta repetido");
+            }
+        }
+
+        if(!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+
+        List<String> existing = this.userService.findExistingUsernames(users.stream().map(User::getUsername).toList());
+
+        if(!existing.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(existing);
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(this.userService.saveAll(users));
+    }
+
 
 
     private ResponseEntity<?> validation(BindingResult result) {
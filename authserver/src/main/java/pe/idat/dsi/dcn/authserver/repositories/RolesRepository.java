@@ -1,5 +1,7 @@
 package pe.idat.dsi.dcn.authserver.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,5 +10,6 @@ import pe.idat.dsi.dcn.authserver.models.Role;
 
 public interface RolesRepository  extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
+    List<Role> findByNameIn(Collection<String> names);
 
 }
@@ -0,0 +1,78 @@
+package pe.idat.dsi.dcn.authserver.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import pe.idat.dsi.dcn.authserver.models.Role;
+import pe.idat.dsi.dcn.authserver.models.User;
+
+// Hibernate cannot batch inserts on IDENTITY ids, so bulk creation goes through plain JDBC batches
+@Repository
+public class UserBatchRepository {
+
+    private static final String INSERT_USER =
+        "INSERT INTO user (username, password, email, phone, address, enabled) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE =
+        "INSERT INTO user_role (user_id, role_id) VALUES (?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void insertAll(List<User> users) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        this.jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    User user = users.get(i);
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getPassword());
+                    ps.setString(3, user.getEmail());
+                    ps.setString(4, user.getPhone());
+                    ps.setString(5, user.getAddress());
+                    ps.setBoolean(6, user.isEnabled());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return users.size();
+                }
+            },
+            keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+
+        List<Object[]> userRoles = new ArrayList<>();
+
+        for (User user : users) {
+            for (Role role : user.getRoles()) {
+                userRoles.add(new Object[] { user.getId(), role.getId() });
+            }
+        }
+
+        if (!userRoles.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package pe.idat.dsi.dcn.authserver.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import pe.idat.dsi.dcn.authserver.models.User;
@@ -11,4 +15,7 @@ import pe.idat.dsi.dcn.authserver.models.User;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findUsernamesIn(@Param("usernames") Collection<String> usernames);
+
 }
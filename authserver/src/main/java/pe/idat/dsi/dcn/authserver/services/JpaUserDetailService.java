@@ -17,14 +17,21 @@ import pe.idat.dsi.dcn.authserver.repositories.UserRepository;
 public class JpaUserDetailService implements UserDetailsService{
 
     private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
 
-    public JpaUserDetailService(UserRepository userRepository) {
+    public JpaUserDetailService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = this.userDetailsCache.get(username);
+        if(cached != null){
+            return cached;
+        }
+
         var result = this.userRepository.findByUsername(username);
         if(!result.isPresent()){
             throw new UsernameNotFoundException("Usuario no ha sido encontrado en la BD");
@@ -37,7 +44,7 @@ public class JpaUserDetailService implements UserDetailsService{
             .map(role -> new SimpleGrantedAuthority(role.getName()))
             .collect(Collectors.toList());
         
-        return new org.springframework.security.core.userdetails.User(
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
             user.getUsername(),
             user.getPassword(),
             user.isEnabled(),
@@ -45,6 +52,10 @@ public class JpaUserDetailService implements UserDetailsService{
             true,
             true,
          authorities);
+
+        this.userDetailsCache.put(userDetails);
+
+        return userDetails;
     }
     
 }
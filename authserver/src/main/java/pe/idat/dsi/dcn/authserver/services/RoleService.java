@@ -1,5 +1,6 @@
 package pe.idat.dsi.dcn.authserver.services;
 
+import java.util.Collection;
 import java.util.List;
 
 import pe.idat.dsi.dcn.authserver.models.Role;
@@ -7,5 +8,6 @@ import pe.idat.dsi.dcn.authserver.models.Role;
 public interface RoleService {
     List<Role> findAll();
     Role save(Role role);
+    List<Role> findByNames(Collection<String> names);
     
 }
@@ -1,8 +1,17 @@
 package pe.idat.dsi.dcn.authserver.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import pe.idat.dsi.dcn.authserver.models.Role;
 import pe.idat.dsi.dcn.authserver.repositories.RolesRepository;
@@ -11,9 +20,14 @@ import pe.idat.dsi.dcn.authserver.repositories.RolesRepository;
 public class RoleServiceImpl implements RoleService{
 
     private RolesRepository rolesRepository;
+    private UserDetailsCache userDetailsCache;
 
-    public RoleServiceImpl(RolesRepository rolesRepository) {
+    // Keys are lower-cased to match the case-insensitive collation findByName relies on
+    private volatile Map<String, Role> rolesByName;
+
+    public RoleServiceImpl(RolesRepository rolesRepository, UserDetailsCache userDetailsCache) {
         this.rolesRepository = rolesRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -26,7 +40,81 @@ public class RoleServiceImpl implements RoleService{
     @Transactional
     @Override
     public Role save(Role role) {
-        return this.rolesRepository.saveAndFlush(role);
+        Role saved = this.rolesRepository.saveAndFlush(role);
+
+        // Dropped once the role is committed, findByNames reloads it. A rolled back save leaves the map as it was.
+        afterCommit(() -> this.rolesByName = null);
+
+        // A role change can alter the authorities of any user holding it
+        this.userDetailsCache.clear();
+
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Role> findByNames(Collection<String> names) {
+        Map<String, Role> cached = this.rolesByName;
+
+        if (cached == null) {
+            cached = index(this.rolesRepository.findAll());
+            this.rolesByName = cached;
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+
+            if (keys.add(key) && !cached.containsKey(key)) {
+                missing.add(name);
+            }
+        }
+
+        // Roles created by another instance are not in the map yet, one query picks them all up
+        if (!missing.isEmpty()) {
+            List<Role> found = this.rolesRepository.findByNameIn(missing);
+
+            if (!found.isEmpty()) {
+                Map<String, Role> refreshed = new HashMap<>(cached);
+                refreshed.putAll(index(found));
+                cached = refreshed;
+                this.rolesByName = refreshed;
+            }
+        }
+
+        List<Role> roles = new ArrayList<>();
+
+        for (String key : keys) {
+            Role role = cached.get(key);
+
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+
+        return roles;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static Map<String, Role> index(List<Role> roles) {
+        Map<String, Role> byName = new HashMap<>();
+        roles.forEach(role -> byName.put(role.getName().toLowerCase(Locale.ROOT), role));
+        return byName;
     }
     
 }
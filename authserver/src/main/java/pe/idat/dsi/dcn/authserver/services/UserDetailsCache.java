@@ -0,0 +1,57 @@
+package pe.idat.dsi.dcn.authserver.services;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserDetailsCache {
+
+    public static final String NAME = "userDetails";
+
+    private CacheManager cacheManager;
+
+    public UserDetailsCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Callers get a copy because the authentication manager erases the password of the instance it is handed
+    public UserDetails get(String username) {
+        Cache cache = cacheManager.getCache(NAME);
+        UserDetails cached = cache == null ? null : cache.get(username, UserDetails.class);
+
+        if (cached == null) {
+            return null;
+        }
+
+        return User.withUserDetails(cached).build();
+    }
+
+    public void put(UserDetails userDetails) {
+        Cache cache = cacheManager.getCache(NAME);
+
+        if (cache != null) {
+            cache.put(userDetails.getUsername(), User.withUserDetails(userDetails).build());
+        }
+    }
+
+    // Evictions wait for the commit so a login running in between cannot cache the old row again
+    public void evict(String username) {
+        Cache cache = cacheManager.getCache(NAME);
+
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).evict(username);
+        }
+    }
+
+    public void clear() {
+        Cache cache = cacheManager.getCache(NAME);
+
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).clear();
+        }
+    }
+}
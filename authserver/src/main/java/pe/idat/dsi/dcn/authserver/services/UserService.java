@@ -7,5 +7,7 @@ import pe.idat.dsi.dcn.authserver.models.User;
 public interface UserService {
     List<User> findAll();
     User save(User user);
+    List<User> saveAll(List<User> users);
+    List<String> findExistingUsernames(List<String> usernames);
     
 }
@@ -1,28 +1,52 @@
 package pe.idat.dsi.dcn.authserver.services;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
 import pe.idat.dsi.dcn.authserver.models.Role;
 import pe.idat.dsi.dcn.authserver.models.User;
-import pe.idat.dsi.dcn.authserver.repositories.RolesRepository;
+import pe.idat.dsi.dcn.authserver.repositories.UserBatchRepository;
 import pe.idat.dsi.dcn.authserver.repositories.UserRepository;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private UserRepository userRepository;
-    private RolesRepository rolesRepository;
+    private UserBatchRepository userBatchRepository;
+    private RoleService roleService;
+    private UserDetailsCache userDetailsCache;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    private ThreadPoolExecutor hashExecutor;
 
-    public UserServiceImpl(UserRepository userRepository, RolesRepository rolesRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserBatchRepository userBatchRepository,
+            RoleService roleService, UserDetailsCache userDetailsCache,
+            @Value("${authserver.users.hash-threads:4}") int hashThreads,
+            @Value("${authserver.users.hash-queue:1000}") int hashQueue) {
         this.userRepository = userRepository;
-        this.rolesRepository = rolesRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.roleService = roleService;
+        this.userDetailsCache = userDetailsCache;
+
+        // Shared by every bulk request, so concurrent requests cannot take more than hashThreads cores between them.
+        // A full queue hashes on the request thread instead.
+        AtomicInteger sequence = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(hashThreads, hashThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(hashQueue),
+                task -> Thread.ofPlatform().name("password-hash-" + sequence.incrementAndGet()).daemon().unstarted(task),
+                new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
     @Override
@@ -32,18 +56,53 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User save(User user) {
-        List<Role> roles = new ArrayList<>();
+        user.setRoles(this.roleService.findByNames(rolesNameOf(user)));
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+
+        User saved = this.userRepository.saveAndFlush(user);
+        this.userDetailsCache.evict(saved.getUsername());
+
+        return saved;
+    }
+
+    // Not transactional: the roles and the hashes are prepared first, so the connection is only held for the inserts
+    @Override
+    public List<User> saveAll(List<User> users) {
+        Set<String> roleNames = new LinkedHashSet<>();
+        users.forEach(user -> roleNames.addAll(rolesNameOf(user)));
+
+        List<Role> roles = this.roleService.findByNames(roleNames);
 
-        user.getRolesName().forEach(roleName -> {
-            Optional<Role> role = this.rolesRepository.findByName(roleName);
-            role.ifPresent(roles::add);
+        // BCrypt dominates the cost of a bulk request, so the hashes are computed in parallel
+        CompletableFuture.allOf(users.stream()
+                .map(user -> CompletableFuture.runAsync(() -> user.setPassword(passwordEncoder.encode(user.getPassword())), hashExecutor))
+                .toArray(CompletableFuture[]::new))
+            .join();
+
+        users.forEach(user -> {
+            List<String> names = rolesNameOf(user);
+            user.setRoles(roles.stream()
+                .filter(role -> names.stream().anyMatch(name -> name.equalsIgnoreCase(role.getName())))
+                .toList());
         });
 
-        user.setRoles(roles);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        this.userBatchRepository.insertAll(users);
+
+        return users;
+    }
+
+    @Override
+    public List<String> findExistingUsernames(List<String> usernames) {
+        return this.userRepository.findUsernamesIn(usernames);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.hashExecutor.shutdown();
+    }
 
-        return this.userRepository.saveAndFlush(user);
-        
+    private static List<String> rolesNameOf(User user) {
+        return user.getRolesName() == null ? List.of() : user.getRolesName();
     }
     
 }
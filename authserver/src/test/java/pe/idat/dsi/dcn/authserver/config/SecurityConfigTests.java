@@ -0,0 +1,68 @@
+package pe.idat.dsi.dcn.authserver.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import pe.idat.dsi.dcn.authserver.controllers.UserRestController;
+import pe.idat.dsi.dcn.authserver.services.UserService;
+
+@WebMvcTest(UserRestController.class)
+@Import(SecurityConfig.class)
+class SecurityConfigTests {
+
+	private static final String USERS = "[{\"username\":\"anaperez1\",\"password\":\"secret123\",\"email\":\"ana@idat.pe\",\"rolesName\":[\"ROLE_USER\"]}]";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private UserService userService;
+
+	@Test
+	void bulkCreationAsksForBasicCredentials() throws Exception {
+		mockMvc.perform(post("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content(USERS))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().exists("WWW-Authenticate"));
+
+		verify(userService, never()).saveAll(anyList());
+	}
+
+	@Test
+	void bulkCreationIsForAdministratorsOnly() throws Exception {
+		mockMvc.perform(post("/api/users/bulk").with(user("ana").authorities(() -> "ROLE_USER"))
+				.contentType(MediaType.APPLICATION_JSON).content(USERS))
+				.andExpect(status().isForbidden());
+
+		when(userService.findExistingUsernames(anyList())).thenReturn(List.of());
+
+		mockMvc.perform(post("/api/users/bulk").with(user("admin").authorities(() -> SecurityConfig.ADMIN_ROLE))
+				.contentType(MediaType.APPLICATION_JSON).content(USERS))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	void registrationCannotGrantTheAdministratorRole() throws Exception {
+		mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"evelopez1\",\"password\":\"secret123\",\"email\":\"eve@idat.pe\",\"rolesName\":[\"role_admin\"]}"))
+				.andExpect(status().isForbidden());
+
+		verify(userService, never()).save(any());
+	}
+}
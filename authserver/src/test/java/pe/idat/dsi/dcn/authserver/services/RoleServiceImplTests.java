@@ -0,0 +1,77 @@
+package pe.idat.dsi.dcn.authserver.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pe.idat.dsi.dcn.authserver.models.Role;
+import pe.idat.dsi.dcn.authserver.repositories.RolesRepository;
+
+class RoleServiceImplTests {
+
+	private final RolesRepository rolesRepository = mock(RolesRepository.class);
+	private final RoleServiceImpl roleService = new RoleServiceImpl(rolesRepository, mock(UserDetailsCache.class));
+
+	@Test
+	void aRolledBackRoleNeverReachesTheMap() {
+		Role user = role(1L, "ROLE_USER");
+		Role editor = role(2L, "ROLE_EDITOR");
+		when(rolesRepository.findAll()).thenReturn(List.of(user));
+		when(rolesRepository.findByNameIn(anyList())).thenReturn(List.of());
+		when(rolesRepository.saveAndFlush(editor)).thenReturn(editor);
+
+		assertThat(roleService.findByNames(List.of("ROLE_USER"))).containsExactly(user);
+
+		// Inside the save's transaction the new row is visible
+		when(rolesRepository.findAll()).thenReturn(List.of(user, editor));
+		TransactionSynchronizationManager.initSynchronization();
+
+		try {
+			roleService.save(editor);
+
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(roleService.findByNames(List.of("ROLE_EDITOR"))).isEmpty();
+	}
+
+	@Test
+	void aCommittedRoleIsPickedUpByTheNextLookup() {
+		Role user = role(1L, "ROLE_USER");
+		Role editor = role(2L, "ROLE_EDITOR");
+		when(rolesRepository.findAll()).thenReturn(List.of(user));
+		when(rolesRepository.saveAndFlush(editor)).thenReturn(editor);
+
+		assertThat(roleService.findByNames(List.of("ROLE_USER"))).containsExactly(user);
+
+		TransactionSynchronizationManager.initSynchronization();
+
+		try {
+			roleService.save(editor);
+			when(rolesRepository.findAll()).thenReturn(List.of(user, editor));
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(roleService.findByNames(List.of("role_editor"))).containsExactly(editor);
+	}
+
+	private static Role role(Long id, String name) {
+		Role role = new Role();
+		role.setId(id);
+		role.setName(name);
+		return role;
+	}
+}
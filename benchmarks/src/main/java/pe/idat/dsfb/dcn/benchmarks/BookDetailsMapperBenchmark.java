@@ -0,0 +1,102 @@
+package pe.idat.dsfb.dcn.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBookRow;
+import pe.idat.dsfb.dcn.library.services.BookDetailsMapper;
+import pe.idat.dsfb.dcn.library.utils.Projections;
+
+// Assembles one page of BookDetails from pre-built link rows. Run with -prof gc, gc.alloc.rate.norm is bytes per book.
+// "perRowDtos" is the previous assembly: growable lists and a new author, publisher and category DTO for every row.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BookDetailsMapperBenchmark.BOOKS)
+public class BookDetailsMapperBenchmark {
+
+    static final int BOOKS = 1000;
+
+    @Param({ "50", "1000" })
+    private int distinctReferences;
+
+    private final BookDetailsMapper mapper = new BookDetailsMapper();
+
+    private List<AuthorInformationForBookRow> authorRows;
+    private List<PublisherInformationForBookRow> publisherRows;
+    private List<CategoryInformationForBookRow> categoryRows;
+
+    @Setup
+    public void setUp() {
+        authorRows = new ArrayList<>();
+        publisherRows = new ArrayList<>();
+        categoryRows = new ArrayList<>();
+
+        for (long book = 1; book <= BOOKS; book++) {
+            for (int i = 0; i < 2; i++) {
+                long author = (book * 7 + i) % distinctReferences;
+                authorRows.add(new AuthorInformationForBookRow(book, author, "Author " + author, "Peruvian",
+                        LocalDate.of(1950, 1, 1), "Biography of author " + author, "author" + author + "@mail.com"));
+            }
+
+            long publisher = book % distinctReferences;
+            publisherRows.add(new PublisherInformationForBookRow(book, publisher, "Publisher " + publisher, "Editorial", "https://publisher" + publisher + ".pe"));
+
+            for (int i = 0; i < 2; i++) {
+                long category = (book * 3 + i) % distinctReferences;
+                categoryRows.add(new CategoryInformationForBookRow(book, category, "Category " + category, "Description of category " + category));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<BookDetails> mapper() {
+        List<BookDetails> books = new ArrayList<>(BOOKS);
+
+        for (long id = 1; id <= BOOKS; id++) {
+            books.add(new BookDetails(id, "Title", "9780000000000", 300, "Spanish", 59.9, LocalDate.of(2020, 1, 1), "Hardcover"));
+        }
+
+        return mapper.attach(books, authorRows, publisherRows, categoryRows);
+    }
+
+    @Benchmark
+    public List<BookDetails> perRowDtos() {
+        List<BookDetails> books = new ArrayList<>();
+
+        for (long id = 1; id <= BOOKS; id++) {
+            books.add(new BookDetails(id, "Title", "9780000000000", 300, "Spanish", 59.9, LocalDate.of(2020, 1, 1), "Hardcover",
+                    new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+        }
+
+        Projections.attach(books, BookDetails::getId, authorRows,
+                AuthorInformationForBookRow::getBookId, (book, row) -> book.getAuthors().add(row.toAuthor()));
+        Projections.attach(books, BookDetails::getId, publisherRows,
+                PublisherInformationForBookRow::getBookId, (book, row) -> book.getPublishers().add(row.toPublisher()));
+        Projections.attach(books, BookDetails::getId, categoryRows,
+                CategoryInformationForBookRow::getBookId, (book, row) -> book.getCategories().add(row.toCategory()));
+
+        return books;
+    }
+}
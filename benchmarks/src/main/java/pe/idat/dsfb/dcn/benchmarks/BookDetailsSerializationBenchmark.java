@@ -0,0 +1,73 @@
+package pe.idat.dsfb.dcn.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBook;
+
+// Response body cost of GET /api/books and the paged list, with an ObjectMapper configured the way Boot configures it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookDetailsSerializationBenchmark {
+
+    @Param({ "20", "1000" })
+    private int books;
+
+    private ObjectMapper objectMapper;
+    private List<BookDetails> details;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        details = new ArrayList<>(books);
+
+        for (int i = 0; i < books; i++) {
+            details.add(new BookDetails(i, "Book " + i, String.format("978%010d", i), 320, "Spanish", 59.9,
+                    LocalDate.of(2000, 1, 1).plusDays(i), "Paperback",
+                    List.of(new AuthorInformationForBook("Author " + i % 100, "Peruvian", LocalDate.of(1950, 1, 1), "Biography of author " + i % 100, "author@mail.com"),
+                            new AuthorInformationForBook("Author " + (i + 1) % 100, "Chilean", LocalDate.of(1960, 1, 1), "Biography of author " + (i + 1) % 100, "author@mail.com")),
+                    List.of(new PublisherInformationForBook("Publisher " + i % 20, "Editorial", "https://publisher.pe")),
+                    List.of(new CategoryInformationForBook("Category " + i % 30, "Description of category " + i % 30))));
+        }
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), details);
+    }
+
+    @Benchmark
+    public byte[] writeListAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(details);
+    }
+}
@@ -0,0 +1,147 @@
+package pe.idat.dsfb.dcn.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import pe.idat.dsfb.dcn.library.LibraryApplication;
+import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookRepository;
+import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+import pe.idat.dsfb.dcn.library.repositories.PublisherRepository;
+import pe.idat.dsfb.dcn.library.services.BookService;
+
+// Boots the library against an in-memory H2 database with a seeded catalogue. The bookDetails cache is disabled so every
+// call measures the queries plus DTO assembly, not a cache hit.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Param({ "1000" })
+    private int books;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.datasource.driver-class-name=org.h2.Driver",
+                    "spring.jpa.hibernate.ddl-auto=create",
+                    "spring.jpa.show-sql=false",
+                    "spring.cache.type=none",
+                    "logging.level.root=WARN")
+                .run();
+
+        bookService = context.getBean(BookService.class);
+        ids = seed(context, books);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDetails getBookDetails() {
+        return bookService.getBookDetails(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Page<BookDetails> getAllBookDetailsWithFilters() {
+        return bookService.getAllBookDetailsWithFilters("", "", "", SearchMode.CONTAINS, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookDetails> getAllBookDetails() {
+        return bookService.getAllBookDetails();
+    }
+
+    static List<Long> seed(ConfigurableApplicationContext context, int books) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Author author = new Author();
+            author.setName("Author " + i);
+            author.setNationality("Peruvian");
+            author.setBirthDate(LocalDate.of(1950, 1, 1).plusDays(i));
+            author.setBiography("Biography of author " + i);
+            author.setEmail("author" + i + "@mail.com");
+            authors.add(author);
+        }
+        authors = context.getBean(AuthorRepository.class).saveAll(authors);
+
+        List<Publisher> publishers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Publisher publisher = new Publisher();
+            publisher.setName("Publisher " + i);
+            publisher.setContactNumber("999000" + i);
+            publisher.setEmail("publisher" + i + "@mail.com");
+            publisher.setType("Editorial");
+            publisher.setCountry("Peru");
+            publisher.setWebsite("https://publisher" + i + ".pe");
+            publishers.add(publisher);
+        }
+        publishers = context.getBean(PublisherRepository.class).saveAll(publishers);
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            category.setDescription("Description of category " + i);
+            categories.add(category);
+        }
+        categories = context.getBean(CategoryRepository.class).saveAll(categories);
+
+        List<Book> catalogue = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setISBN(String.format("978%010d", i));
+            book.setPageCount(100 + i % 500);
+            book.setLanguage(i % 2 == 0 ? "Spanish" : "English");
+            book.setPrice(20 + i % 80);
+            book.setPublicationDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            book.setFormat(i % 3 == 0 ? "Hardcover" : "Paperback");
+            book.setAuthors(List.of(authors.get(i % authors.size()), authors.get((i * 7 + 1) % authors.size())));
+            book.setPublishers(List.of(publishers.get(i % publishers.size())));
+            book.setCategories(List.of(categories.get(i % categories.size()), categories.get((i * 3 + 1) % categories.size())));
+            catalogue.add(book);
+        }
+
+        return context.getBean(BookRepository.class).saveAll(catalogue).stream().map(Book::getId).toList();
+    }
+}
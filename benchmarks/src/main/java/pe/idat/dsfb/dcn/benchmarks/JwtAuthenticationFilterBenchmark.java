@@ -0,0 +1,90 @@
+package pe.idat.dsfb.dcn.benchmarks;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import pe.idat.dsfb.dcn.library.config.JwtAuthenticationFilter;
+
+// The library's bearer token check. Tokens with exp are parsed once and then served from the filter's cache, tokens
+// without exp are never cached, so they measure the full signature check and claims parse on every request.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    // Same key the authserver signs with
+    private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("RXdKSps6tFLqkWgdIKGs4EFo696TnYjn7mR+6s+dSHo=".getBytes());
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest cachedRequest;
+    private MockHttpServletRequest parsedRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new JwtAuthenticationFilter(authentication -> authentication);
+        cachedRequest = request(token(new Date(System.currentTimeMillis() + 3_600_000)));
+        parsedRequest = request(token(null));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        return authenticate(cachedRequest);
+    }
+
+    @Benchmark
+    public Object parsedToken() throws Exception {
+        return authenticate(parsedRequest);
+    }
+
+    private Object authenticate(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, response, CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static String token(Date expiration) {
+        return Jwts.builder()
+                .subject("benchmark")
+                .claim("authorities", List.of(Map.of("authority", "ROLE_ADMIN"), Map.of("authority", "ROLE_USER")))
+                .claim("username", "benchmark")
+                .issuedAt(new Date())
+                .expiration(expiration)
+                .signWith(SECRET_KEY)
+                .compact();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -2,8 +2,10 @@ package pe.idat.dsfb.dcn.library;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class LibraryApplication {
 
 	public static void main(String[] args) {
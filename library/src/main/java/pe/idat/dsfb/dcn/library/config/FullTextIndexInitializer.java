@@ -0,0 +1,44 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Hibernate's schema update cannot declare FULLTEXT indexes, so the ones used by SearchMode.FULLTEXT are created here.
+@Component
+public class FullTextIndexInitializer implements ApplicationRunner {
+
+    private static final List<String[]> FULLTEXT_INDEXES = List.of(
+        new String[] { "book", "title", "ft_book_title" },
+        new String[] { "author", "name", "ft_author_name" },
+        new String[] { "category", "description", "ft_category_description" }
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String databaseProduct = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+
+        if (!"MySQL".equalsIgnoreCase(databaseProduct)) {
+            return;
+        }
+
+        for (String[] index : FULLTEXT_INDEXES) {
+            Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                Integer.class, index[0], index[2]);
+
+            if (existing == null || existing == 0) {
+                jdbcTemplate.execute("CREATE FULLTEXT INDEX " + index[2] + " ON " + index[0] + " (" + index[1] + ")");
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package pe.idat.dsfb.dcn.library.config;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -11,7 +16,11 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -24,6 +33,31 @@ public class JwtAuthenticationFilter extends BasicAuthenticationFilter {
     private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("RXdKSps6tFLqkWgdIKGs4EFo696TnYjn7mR+6s+dSHo=".getBytes());
     private static final String PREFIX_TOKEN = "Bearer ";
     private static final String HEADER_AUTHORIZATION = "Authorization";
+    private static final long MAX_CACHED_TOKENS = 10_000;
+
+    // The parser is immutable and thread-safe, there is no need to build one per request
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(SECRET_KEY).build();
+
+    // Keyed by the SHA-256 of the token so raw tokens are not kept in memory, each entry lives until the token's exp
+    private final Cache<String, CachedAuthentication> authentications = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new Expiry<String, CachedAuthentication>() {
+                @Override
+                public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                    return Math.max(0, value.expiresAt() - System.currentTimeMillis()) * 1_000_000;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
     public JwtAuthenticationFilter(AuthenticationManager authenticationManager) {
         super(authenticationManager);
@@ -40,12 +74,32 @@ public class JwtAuthenticationFilter extends BasicAuthenticationFilter {
         }
 
         String token = header.replace(PREFIX_TOKEN, "");
-        Claims claims = Jwts.parser()
-                .verifyWith(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String key = digest(token);
+        CachedAuthentication cached = authentications.getIfPresent(key);
+
+        if (cached == null) {
+            cached = authenticate(token);
+
+            if (cached != null && cached.expiresAt() > 0) {
+                authentications.put(key, cached);
+            }
+        }
+
+        if (cached != null) {
+            SecurityContextHolder.getContext().setAuthentication(cached.authentication());
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private CachedAuthentication authenticate(String token) {
+        Claims claims = PARSER.parseSignedClaims(token).getPayload();
         String username = claims.getSubject();
+
+        if (username == null) {
+            return null;
+        }
+
         List<GrantedAuthority> authorities = ((List<?>) claims.get("authorities")).stream()
                 .map(authority -> {
                     if (authority instanceof LinkedHashMap) {
@@ -56,11 +110,22 @@ public class JwtAuthenticationFilter extends BasicAuthenticationFilter {
                 })
                 .collect(Collectors.toList());
 
-        if (username != null) {
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        Date expiration = claims.getExpiration();
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
+
+        // Tokens without exp are still accepted, they are just not cached
+        return new CachedAuthentication(authentication, expiration == null ? 0 : expiration.getTime());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
+    }
 
-        chain.doFilter(request, response);
+    private record CachedAuthentication(UsernamePasswordAuthenticationToken authentication, long expiresAt) {
     }
 }
@@ -0,0 +1,21 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import pe.idat.dsfb.dcn.library.utils.RequestStatistics;
+
+// Hibernate's own statistics, plus the rows each JPQL query returned charged to the current request. This includes the
+// DTO projections, which never show up as loaded entities. Needs hibernate.generate_statistics=true.
+public class QueryRowStatistics extends StatisticsImpl {
+
+    public QueryRowStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        RequestStatistics.queryExecuted(rows);
+    }
+}
@@ -0,0 +1,91 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import pe.idat.dsfb.dcn.library.utils.RequestStatistics;
+
+// Records what each request did against the database, tagged like http.server.requests so the two can be joined, and
+// counts the not found and conflict answers. An async request is measured per dispatch. Each request is also checked
+// against the SqlStatementBudget.
+@Component
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlStatementBudget sqlStatementBudget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.start(sqlStatementBudget.limitFor(uri(request)));
+        return true;
+    }
+
+    // A StreamingResponseBody runs on an MVC task executor thread without these statistics, so its statements are not
+    // counted or limited. Only the dispatches on the request thread are measured, that is why the streaming endpoints
+    // are in library.sql.statement-budget-exclude.
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatistics statistics = RequestStatistics.current();
+        RequestStatistics.clear();
+
+        if (statistics == null) {
+            return;
+        }
+
+        String uri = uri(request);
+        String method = request.getMethod();
+
+        sqlStatementBudget.record(method, uri, statistics.getStatements());
+
+        summary("library.request.sql.statements", "SQL statements prepared per request", uri, method)
+                .record(statistics.getStatements());
+        summary("library.request.query.rows", "Rows returned by the JPQL queries of a request", uri, method)
+                .record(statistics.getQueryRows());
+        summary("library.request.entities.loaded", "Entities hydrated per request", uri, method)
+                .record(statistics.getEntitiesLoaded());
+
+        int status = response.getStatus();
+
+        if (status == HttpStatus.NOT_FOUND.value() || status == HttpStatus.CONFLICT.value()) {
+            Counter.builder("library.responses")
+                    .description("Requests answered with 404 or 409")
+                    .tag("uri", uri)
+                    .tag("method", method)
+                    .tag("status", String.valueOf(status))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    // The handler mapping sets the pattern before the interceptors run
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private DistributionSummary summary(String name, String description, String uri, String method) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
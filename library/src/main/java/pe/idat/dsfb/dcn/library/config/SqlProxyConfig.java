@@ -0,0 +1,52 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@Configuration
+public class SqlProxyConfig {
+
+    // Wraps the data source the application uses, Boot's single pool or DataSourceConfig's routing proxy, not the pools
+    // behind the latter, so each statement is timed once. A post-processor is created before the beans the monitor
+    // needs, so the monitor is looked up on the first statement and kept from then on.
+    @Bean
+    static BeanPostProcessor sqlProxyDataSourcePostProcessor(ObjectProvider<SqlQueryMonitor> sqlQueryMonitor) {
+        Supplier<SqlQueryMonitor> monitor = SingletonSupplier.of(sqlQueryMonitor::getIfAvailable);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .beforeQuery((execution, queries) -> {
+                            SqlQueryMonitor current = monitor.get();
+
+                            if (current != null) {
+                                current.beforeQuery(execution, queries);
+                            }
+                        })
+                        .afterQuery((execution, queries) -> {
+                            SqlQueryMonitor current = monitor.get();
+
+                            if (current != null) {
+                                current.afterQuery(execution, queries);
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+// /actuator/sqlqueries?limit=20 lists the statements that took the most time in total, with the latest slow samples
+@Component
+@Endpoint(id = "sqlqueries")
+public class SqlQueryEndpoint {
+
+    @Autowired
+    private SqlQueryMonitor sqlQueryMonitor;
+
+    @ReadOperation
+    public Map<String, Object> queries(@Nullable Integer limit) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("queries", sqlQueryMonitor.getQueries(limit == null ? 20 : limit));
+        report.put("slowQueries", sqlQueryMonitor.getSlowQueries());
+        return report;
+    }
+}
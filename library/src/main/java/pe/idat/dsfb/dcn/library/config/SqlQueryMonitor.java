@@ -0,0 +1,187 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import pe.idat.dsfb.dcn.library.dtos.SlowQuerySample;
+import pe.idat.dsfb.dcn.library.dtos.SqlQueryStatistics;
+
+// Times every statement that goes through the data source, JPA and JdbcTemplate alike. Each distinct SQL string, with
+// its IN lists collapsed, gets a library.sql.query timer tagged with a short id that /actuator/sqlqueries maps back to
+// the SQL. Each timer publishes a small fixed histogram, buckets at 5, 25, 100 and 500 ms, to estimate per-query latency
+// percentiles from. The collapsed IN lists and the MAX_QUERIES cap bound how many of them there are.
+// A statement slower than library.sql.slow-query-threshold is logged with its bind parameters: the first slow run of
+// each query and then one in library.sql.slow-query-sample, the latest samples are kept for the endpoint too.
+@Component
+public class SqlQueryMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlQueryMonitor.class);
+    private static final String STARTED = "sqlQueryMonitor.started";
+    private static final int MAX_QUERIES = 1_000;
+    private static final int MAX_SLOW_SAMPLES = 50;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final String OTHER_QUERIES = "other";
+    private static final Duration[] LATENCY_BUCKETS = {
+            Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100), Duration.ofMillis(500) };
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\b(in)\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    @Value("${library.sql.slow-query-threshold:100ms}")
+    private Duration slowQueryThreshold;
+
+    @Value("${library.sql.slow-query-sample:10}")
+    private int slowQuerySample;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Query> queries = new ConcurrentHashMap<>();
+    private final Deque<SlowQuerySample> slowQueries = new ArrayDeque<>();
+
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queryInfos) {
+        execution.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> queryInfos) {
+        Long started = execution.getCustomValue(STARTED, Long.class);
+
+        if (started == null || queryInfos.isEmpty()) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - started;
+        String sql = queryInfos.size() == 1
+                ? queryInfos.get(0).getQuery()
+                : queryInfos.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        Query query = query(normalize(sql));
+        query.timer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (elapsed < slowQueryThreshold.toNanos()) {
+            return;
+        }
+
+        if ((query.slow.incrementAndGet() - 1) % Math.max(1, slowQuerySample) != 0) {
+            return;
+        }
+
+        String parameters = parameters(queryInfos.get(0));
+        double millis = elapsed / 1e6;
+        log.warn("Slow query [{}] {} ms: {} {}", query.id, String.format(Locale.ROOT, "%.1f", millis), sql, parameters);
+
+        synchronized (slowQueries) {
+            if (slowQueries.size() == MAX_SLOW_SAMPLES) {
+                slowQueries.removeLast();
+            }
+
+            slowQueries.addFirst(new SlowQuerySample(query.id, sql, parameters, millis, Instant.now()));
+        }
+    }
+
+    // Queries ordered by the time spent in them since startup
+    public List<SqlQueryStatistics> getQueries(int limit) {
+        return queries.values().stream()
+                .sorted(Comparator.comparingDouble((Query query) -> query.timer.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .limit(limit)
+                .map(Query::toStatistics)
+                .toList();
+    }
+
+    public List<SlowQuerySample> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    // Statements are prepared with placeholders and IN lists are normalized, so the distinct SQL strings are bounded by the
+    // code. The cap only guards against literal values concatenated into SQL turning into one timer per value.
+    private Query query(String sql) {
+        Query query = queries.get(sql);
+
+        if (query != null) {
+            return query;
+        }
+
+        return queries.computeIfAbsent(queries.size() < MAX_QUERIES ? sql : OTHER_QUERIES, this::register);
+    }
+
+    private Query register(String sql) {
+        String id = String.format("%08x", sql.hashCode());
+        String statement = sql.strip();
+        int space = statement.indexOf(' ');
+        String type = (space < 0 ? statement : statement.substring(0, space)).toLowerCase(Locale.ROOT);
+
+        Timer timer = Timer.builder("library.sql.query")
+                .description("Statements executed through the library data source")
+                .tag("query", id)
+                .tag("type", type)
+                .serviceLevelObjectives(LATENCY_BUCKETS)
+                .register(meterRegistry);
+
+        return new Query(id, sql, timer);
+    }
+
+    // in (?, ?, ?) becomes in (...), Hibernate pads its lists to powers of two but JdbcTemplate and native queries do not
+    static String normalize(String sql) {
+        return IN_LIST.matcher(sql).replaceAll("$1 (...)");
+    }
+
+    // The values of the first parameter set, a batch only shows how many more sets it had
+    private static String parameters(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parameterSets = queryInfo.getParametersList();
+
+        if (parameterSets.isEmpty()) {
+            return "[]";
+        }
+
+        String values = parameterSets.get(0).stream()
+                .map(operation -> operation.getArgs().length > 1 ? truncate(String.valueOf(operation.getArgs()[1])) : "")
+                .collect(Collectors.joining(", ", "[", "]"));
+
+        return parameterSets.size() == 1 ? values : values + " (+" + (parameterSets.size() - 1) + " more)";
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_PARAMETER_LENGTH ? value : value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+    }
+
+    private static class Query {
+        private final String id;
+        private final String sql;
+        private final Timer timer;
+        private final AtomicLong slow = new AtomicLong();
+
+        private Query(String id, String sql, Timer timer) {
+            this.id = id;
+            this.sql = sql;
+            this.timer = timer;
+        }
+
+        private SqlQueryStatistics toStatistics() {
+            return new SqlQueryStatistics(id, sql, timer.count(), slow.get(), timer.totalTime(TimeUnit.MILLISECONDS),
+                    timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+    }
+}
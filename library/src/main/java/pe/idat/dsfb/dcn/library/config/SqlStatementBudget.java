@@ -0,0 +1,99 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import pe.idat.dsfb.dcn.library.dtos.StatementBudgetOffender;
+
+// Every /api request may prepare up to library.sql.statement-budget statements. A request over it is logged, or fails at
+// the statement past the budget when library.sql.statement-budget-fail is on (as in the tests), so an N+1 loop shows
+// up as a stack trace pointing at the loop. Endpoints that work in bulk are listed in library.sql.statement-budget-exclude.
+@Component
+public class SqlStatementBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudget.class);
+
+    @Value("${library.sql.statement-budget:20}")
+    private int budget;
+
+    @Value("${library.sql.statement-budget-fail:false}")
+    private boolean fail;
+
+    @Value("${library.sql.statement-budget-exclude:}")
+    private String[] excluded;
+
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    public int getBudget() {
+        return budget;
+    }
+
+    // The statement limit for a request to uri, 0 when it is only checked once the request is over
+    public int limitFor(String uri) {
+        return fail && !isExcluded(uri) ? budget : 0;
+    }
+
+    public void record(String method, String uri, int statements) {
+        if (isExcluded(uri)) {
+            return;
+        }
+
+        Offender offender = offenders.computeIfAbsent(method + " " + uri, Offender::new);
+        offender.requests.increment();
+        offender.statements.add(statements);
+        int previousMax = offender.maxStatements.getAndAccumulate(statements, Math::max);
+
+        if (statements <= budget) {
+            return;
+        }
+
+        offender.overBudget.increment();
+
+        // Only a new worst case is logged, a hot endpoint over budget would otherwise log on every request
+        if (statements > previousMax) {
+            log.warn("{} prepared {} SQL statements, the budget is {} ({} requests over budget so far)",
+                    offender.endpoint, statements, budget, offender.overBudget.sum());
+        }
+    }
+
+    // Endpoints ordered by the most statements a single request of theirs prepared
+    public List<StatementBudgetOffender> worstOffenders(int limit) {
+        return offenders.values().stream()
+                .sorted(Comparator.comparingInt((Offender offender) -> offender.maxStatements.get()).reversed())
+                .limit(limit)
+                .map(Offender::toOffender)
+                .toList();
+    }
+
+    private boolean isExcluded(String uri) {
+        return Arrays.asList(excluded).contains(uri);
+    }
+
+    private static class Offender {
+        private final String endpoint;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final AtomicInteger maxStatements = new AtomicInteger();
+
+        private Offender(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private StatementBudgetOffender toOffender() {
+            long count = requests.sum();
+            double average = count == 0 ? 0 : (double) statements.sum() / count;
+            return new StatementBudgetOffender(endpoint, count, overBudget.sum(), maxStatements.get(), average);
+        }
+    }
+}
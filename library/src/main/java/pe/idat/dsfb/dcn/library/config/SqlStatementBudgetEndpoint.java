@@ -0,0 +1,25 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import pe.idat.dsfb.dcn.library.dtos.StatementBudgetOffender;
+
+// /actuator/sqlbudget?limit=10 lists the endpoints with the most SQL statements in a single request since startup
+@Component
+@Endpoint(id = "sqlbudget")
+public class SqlStatementBudgetEndpoint {
+
+    @Autowired
+    private SqlStatementBudget sqlStatementBudget;
+
+    @ReadOperation
+    public List<StatementBudgetOffender> worstOffenders(@Nullable Integer limit) {
+        return sqlStatementBudget.worstOffenders(limit == null ? 10 : limit);
+    }
+}
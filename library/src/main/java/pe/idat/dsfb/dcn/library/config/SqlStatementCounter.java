@@ -0,0 +1,15 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import pe.idat.dsfb.dcn.library.utils.RequestStatistics;
+
+// Hibernate hands every statement it prepares to the inspector, a JDBC batch is prepared once however many rows it has.
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.statementPrepared();
+        return sql;
+    }
+}
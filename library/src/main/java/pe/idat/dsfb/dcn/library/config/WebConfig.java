@@ -0,0 +1,23 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class WebConfig {
+
+    // Collection responses have no single version to compare, so their ETag is a hash of the body.
+    // The stream endpoint is left out because the filter would buffer the whole catalogue.
+    @Bean
+    FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns(
+            "/api/books", "/api/books/page",
+            "/api/authors", "/api/authors/page",
+            "/api/publishers", "/api/publishers/page",
+            "/api/categories", "/api/categories/page");
+        return registration;
+    }
+}
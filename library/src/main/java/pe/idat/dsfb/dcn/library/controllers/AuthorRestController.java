@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,8 +28,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import pe.idat.dsfb.dcn.library.dtos.AuthorValidation;
 import pe.idat.dsfb.dcn.library.dtos.AuthorInformation;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Author;
 import pe.idat.dsfb.dcn.library.services.AuthorService;
+import pe.idat.dsfb.dcn.library.utils.ETagUtils;
 
 @RestController
 @RequestMapping("/api/authors")
@@ -169,23 +174,43 @@ public class AuthorRestController {
             description = "Author details with books successfully retrieved",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthorInformation.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Author not modified since the version given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Author not found with the provided ID",
             content = @Content(mediaType = "text/plain")
         )
     })
-    public ResponseEntity<?> getAuthorWithBooks(@PathVariable Long id) {
+    public ResponseEntity<?> getAuthorWithBooks(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        AuthorInformation authorInformation = authorService.getAuthorWithBooks(id);
+        ResourceVersion version = authorService.getVersion(id);
 
-        if (authorInformation == null) {
+        if (version == null) {
             return new ResponseEntity<>("Author not found with ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        String eTag = ETagUtils.of(version);
+
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
         headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.add(HttpHeaders.ETAG, eTag);
+
+        // The version lookup is enough to answer a revalidation, the details are only loaded when they changed
+        if (ETagUtils.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        AuthorInformation authorInformation = authorService.getAuthorWithBooks(id);
+
+        if (authorInformation == null) {
+            return new ResponseEntity<>("Author not found with ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
 
         return new ResponseEntity<>(authorInformation, headers, HttpStatus.OK);
     }
@@ -225,7 +250,7 @@ public class AuthorRestController {
     @GetMapping("/page")
     @Operation(
         summary = "Get all authors with filters and pagination",
-        description = "Retrieves a paginated list of authors filtered by name and nationality. Returns a 404 error if no authors are found."
+        description = "Retrieves a paginated list of authors filtered by name and nationality. Returns a 404 error if no authors are found. Empty filters are ignored, the others must all match. The mode parameter selects how filters are matched: CONTAINS (default), PREFIX and EXACT, where PREFIX and EXACT can use indexes, or FULLTEXT, which runs a full-text search on the name only. When the after parameter is present, keyset pagination is used instead: results are ordered by ID, start after the opaque cursor (an empty value starts from the beginning) and the response carries a nextCursor instead of a total count. The size of a cursor page is kept between 1 and 100."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -233,6 +258,11 @@ public class AuthorRestController {
             description = "Authors successfully retrieved with applied filters and pagination",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthorInformation.class))
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "The provided cursor is not valid",
+            content = @Content(mediaType = "text/plain")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "No authors found with the provided filters",
@@ -242,10 +272,32 @@ public class AuthorRestController {
     public ResponseEntity<?> getAllAuthorsWithFilters(
             @RequestParam(defaultValue = "") String name,
             @RequestParam(defaultValue = "") String nationality,
+            @RequestParam(defaultValue = "CONTAINS") SearchMode mode,
             @RequestParam(defaultValue = "0") int page, 
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            Long lastId = CursorPage.decodeCursor(after);
+
+            if (lastId == null) {
+                return new ResponseEntity<>("Invalid cursor: " + after, HttpStatus.BAD_REQUEST);
+            }
+
+            CursorPage<AuthorInformation> authorsInformationPage = authorService.getAllAuthorsWithFiltersAfter(name, nationality, mode, lastId, size);
+
+            if (authorsInformationPage.getContent().isEmpty()) {
+                return new ResponseEntity<>("No authors found", HttpStatus.NOT_FOUND);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
+            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+            return new ResponseEntity<>(authorsInformationPage, headers, HttpStatus.OK);
+        }
 
-        Page<AuthorInformation> authorsInformation = authorService.getAllAuthorsWithFilters(name, nationality, page, size);
+        Page<AuthorInformation> authorsInformation = authorService.getAllAuthorsWithFilters(name, nationality, mode, page, size);
         
         if (authorsInformation.isEmpty()) {
             return new ResponseEntity<>("No authors found", HttpStatus.NOT_FOUND);
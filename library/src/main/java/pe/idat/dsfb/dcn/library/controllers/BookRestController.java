@@ -4,8 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,25 +19,43 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import org.springframework.validation.BindingResult;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.BookSearchResult;
 import pe.idat.dsfb.dcn.library.dtos.BookValidation;
+import pe.idat.dsfb.dcn.library.dtos.BulkImportResult;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
+import pe.idat.dsfb.dcn.library.dtos.ExportFormat;
+import pe.idat.dsfb.dcn.library.dtos.ImportReport;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Author;
 import pe.idat.dsfb.dcn.library.models.Book;
 import pe.idat.dsfb.dcn.library.models.Category;
 import pe.idat.dsfb.dcn.library.models.Publisher;
 import pe.idat.dsfb.dcn.library.services.AuthorService;
+import pe.idat.dsfb.dcn.library.services.BookExportService;
+import pe.idat.dsfb.dcn.library.services.BookImportPipeline;
+import pe.idat.dsfb.dcn.library.services.BookImportService;
 import pe.idat.dsfb.dcn.library.services.BookService;
 import pe.idat.dsfb.dcn.library.services.CategoryService;
 import pe.idat.dsfb.dcn.library.services.PublisherService;
+import pe.idat.dsfb.dcn.library.utils.ETagUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookRestController {
 
+    private static final int MAX_BULK_SIZE = 100_000;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     @Autowired
     private BookService bookService;
 
@@ -46,6 +68,18 @@ public class BookRestController {
     @Autowired
     private PublisherService publisherService;
 
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookImportPipeline bookImportPipeline;
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @Operation(
         summary = "Create a new book",
@@ -102,6 +136,70 @@ public class BookRestController {
         return new ResponseEntity<>(createdBook, headers, HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+        summary = "Create books in bulk",
+        description = "Creates many books in one request. Invalid records, duplicated ISBNs and records whose authors, categories or publishers do not exist are skipped and reported, the rest are inserted."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Import finished, at least one book was created",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResult.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty or oversized request, or no record could be imported",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<?> createBooks(@RequestBody List<BookValidation> bookValidations) {
+
+        if (bookValidations.isEmpty() || bookValidations.size() > MAX_BULK_SIZE) {
+            return new ResponseEntity<>("The request must contain between 1 and " + MAX_BULK_SIZE + " books.", HttpStatus.BAD_REQUEST);
+        }
+
+        BulkImportResult result = bookImportService.importAll(bookValidations);
+
+        if (result.getCreated() == 0) {
+            return new ResponseEntity<>(result, HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/import")
+    @Operation(
+        summary = "Import a book catalogue file",
+        description = "Streams a CSV file (format=csv, header row, list columns separated by '|') or a JSON array / newline-delimited JSON file (format=json) from the request body. Records are validated, resolved and inserted in batches while the file is still being read. The report lists per-stage throughput and the rejected rows."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import finished, see the report for created and rejected records",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImportReport.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Unsupported format, or the import stopped before the end of the file",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<?> importBooks(@RequestParam(defaultValue = "json") String format, HttpServletRequest request) throws IOException {
+
+        if (!format.equals("csv") && !format.equals("json")) {
+            return new ResponseEntity<>("Unsupported format: " + format, HttpStatus.BAD_REQUEST);
+        }
+
+        ImportReport report = bookImportPipeline.run(request.getInputStream(), format.equals("csv"));
+
+        if (report.getFailure() != null) {
+            return new ResponseEntity<>(report, HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @Operation(
         summary = "Update an existing book",
@@ -192,23 +290,43 @@ public class BookRestController {
             content = @Content(mediaType = "application/json", 
                                schema = @Schema(implementation = BookDetails.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Book not modified since the version given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Book not found with the provided ID",
             content = @Content(mediaType = "text/plain")
         )
     })
-    public ResponseEntity<?> getBookDetails(@PathVariable Long id) {
+    public ResponseEntity<?> getBookDetails(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        BookDetails bookDetails = bookService.getBookDetails(id);
+        ResourceVersion version = bookService.getVersion(id);
 
-        if (bookDetails == null) {
+        if (version == null) {
             return new ResponseEntity<>("Book not found with ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        String eTag = ETagUtils.of(version);
+
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
         headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.add(HttpHeaders.ETAG, eTag);
+
+        // The version lookup is enough to answer a revalidation, the details are only loaded when they changed
+        if (ETagUtils.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        BookDetails bookDetails = bookService.getBookDetails(id);
+
+        if (bookDetails == null) {
+            return new ResponseEntity<>("Book not found with ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
 
         return new ResponseEntity<>(bookDetails, headers, HttpStatus.OK);
     }
@@ -246,10 +364,125 @@ public class BookRestController {
         return new ResponseEntity<>(bookDetails, headers, HttpStatus.OK);
     }
 
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search books",
+        description = "Ranks books by how well their title, author names and biographies, category names and publisher names match the query terms. Served from an in-memory index, so no database query is issued. The limit is kept between 1 and 100. Returns a 404 status if no books match."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully fetched the matching books, best match first",
+            content = @Content(mediaType = "application/json", 
+                               schema = @Schema(implementation = BookSearchResult.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "No books match the query",
+            content = @Content(mediaType = "text/plain")
+        )
+    })
+    public ResponseEntity<?> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<BookSearchResult> results = bookService.search(q, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+
+        if (results.isEmpty()) {
+            return new ResponseEntity<>("No books found", HttpStatus.NOT_FOUND);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        return new ResponseEntity<>(results, headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream all book details",
+        description = "Streams the details of every book as newline-delimited JSON, one book per line. Books are read and written in chunks, so memory use does not grow with the size of the catalogue."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully started streaming the details of all books",
+            content = @Content(mediaType = "application/x-ndjson", 
+                               schema = @Schema(implementation = BookDetails.class))
+        )
+    })
+    public ResponseEntity<StreamingResponseBody> streamAllBookDetails() {
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                bookService.forEachBookDetails(bookDetails -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(bookDetails));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE);
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export the whole catalogue",
+        description = "Streams every book with its author, category and publisher names straight from a read-only database cursor. Formats: CSV (same columns as the import, lists separated by '|'), NDJSON (one book per line) and COLUMNAR (one line per group of 1000 books, one array per column). The response is gzip-compressed when the client accepts it."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully started streaming the catalogue",
+            content = {
+                @Content(mediaType = "text/csv"),
+                @Content(mediaType = "application/x-ndjson")
+            }
+        )
+    })
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                bookExportService.export(format, gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                bookExportService.export(format, outputStream);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, format.getContentType());
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books." + format.getExtension() + "\"");
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     @GetMapping("/page")
     @Operation(
         summary = "Get paginated book details with filters",
-        description = "Fetches a paginated list of book details with optional filters for language and format. Returns a 404 status if no books are found."
+        description = "Fetches a paginated list of book details with optional filters for language and format. Returns a 404 status if no books are found. Empty filters are ignored, the others must all match. The mode parameter selects how filters are matched: CONTAINS (default), PREFIX and EXACT, where PREFIX and EXACT can use indexes, or FULLTEXT, which runs a full-text search on the title parameter instead. When the after parameter is present, keyset pagination is used instead: results are ordered by ID, start after the opaque cursor (an empty value starts from the beginning) and the response carries a nextCursor instead of a total count. The size of a cursor page is kept between 1 and 100."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -258,6 +491,11 @@ public class BookRestController {
             content = @Content(mediaType = "application/json", 
                                schema = @Schema(implementation = BookDetails.class))
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "The provided cursor is not valid",
+            content = @Content(mediaType = "text/plain")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "No books found matching the provided filters",
@@ -267,10 +505,33 @@ public class BookRestController {
     public ResponseEntity<?> getAllBookDetailsWithFilters(
             @RequestParam(defaultValue = "") String language,
             @RequestParam(defaultValue = "") String format,
+            @RequestParam(defaultValue = "") String title,
+            @RequestParam(defaultValue = "CONTAINS") SearchMode mode,
             @RequestParam(defaultValue = "0") int page, 
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            Long lastId = CursorPage.decodeCursor(after);
+
+            if (lastId == null) {
+                return new ResponseEntity<>("Invalid cursor: " + after, HttpStatus.BAD_REQUEST);
+            }
+
+            CursorPage<BookDetails> bookDetailsPage = bookService.getAllBookDetailsWithFiltersAfter(language, format, title, mode, lastId, size);
+
+            if (bookDetailsPage.getContent().isEmpty()) {
+                return new ResponseEntity<>("No books found", HttpStatus.NOT_FOUND);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
+            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+            return new ResponseEntity<>(bookDetailsPage, headers, HttpStatus.OK);
+        }
 
-        Page<BookDetails> bookDetails = bookService.getAllBookDetailsWithFilters(language, format, page, size);
+        Page<BookDetails> bookDetails = bookService.getAllBookDetailsWithFilters(language, format, title, mode, page, size);
         
         if (bookDetails.isEmpty()) {
             return new ResponseEntity<>("No authors found", HttpStatus.NOT_FOUND);
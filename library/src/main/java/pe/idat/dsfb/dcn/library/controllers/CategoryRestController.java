@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,9 +27,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import pe.idat.dsfb.dcn.library.dtos.CategoryInformation;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.dtos.CategoryValidation;
 import pe.idat.dsfb.dcn.library.models.Category;
 import pe.idat.dsfb.dcn.library.services.CategoryService;
+import pe.idat.dsfb.dcn.library.utils.ETagUtils;
 
 
 @RestController
@@ -176,6 +181,10 @@ public class CategoryRestController {
                 schema = @Schema(implementation = CategoryInformation.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Category not modified since the version given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Category not found with the provided ID",
@@ -184,17 +193,33 @@ public class CategoryRestController {
             )
         )
     })
-    public ResponseEntity<?> getCategoryWithBooks(@PathVariable Long id) {
+    public ResponseEntity<?> getCategoryWithBooks(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        CategoryInformation categoryInformation = categoryService.getCategoryWithBooks(id);
+        ResourceVersion version = categoryService.getVersion(id);
 
-        if (categoryInformation == null) {
+        if (version == null) {
             return new ResponseEntity<>("Category not found with ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        String eTag = ETagUtils.of(version);
+
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
         headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.add(HttpHeaders.ETAG, eTag);
+
+        // The version lookup is enough to answer a revalidation, the details are only loaded when they changed
+        if (ETagUtils.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        CategoryInformation categoryInformation = categoryService.getCategoryWithBooks(id);
+
+        if (categoryInformation == null) {
+            return new ResponseEntity<>("Category not found with ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
 
         return new ResponseEntity<>(categoryInformation, headers, HttpStatus.OK);
     }
@@ -240,7 +265,7 @@ public class CategoryRestController {
     @GetMapping("/page")
     @Operation(
         summary = "Get all categories with filters and pagination",
-        description = "Retrieves a paginated list of categories, optionally filtered by description."
+        description = "Retrieves a paginated list of categories, optionally filtered by description. An empty description matches every category. The mode parameter selects how filters are matched: CONTAINS (default), PREFIX and EXACT, where PREFIX and EXACT can use indexes, or FULLTEXT, which runs a full-text search on the description. When the after parameter is present, keyset pagination is used instead: results are ordered by ID, start after the opaque cursor (an empty value starts from the beginning) and the response carries a nextCursor instead of a total count. The size of a cursor page is kept between 1 and 100."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -251,6 +276,11 @@ public class CategoryRestController {
                 schema = @Schema(implementation = CategoryInformation.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "The provided cursor is not valid",
+            content = @Content(mediaType = "text/plain")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "No categories found matching the filters",
@@ -261,10 +291,32 @@ public class CategoryRestController {
     })
     public ResponseEntity<?> getAllCategoriesWithFilters(
             @RequestParam(defaultValue = "") String description,
+            @RequestParam(defaultValue = "CONTAINS") SearchMode mode,
             @RequestParam(defaultValue = "0") int page, 
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
+
+        if (after != null) {
+            Long lastId = CursorPage.decodeCursor(after);
+
+            if (lastId == null) {
+                return new ResponseEntity<>("Invalid cursor: " + after, HttpStatus.BAD_REQUEST);
+            }
+
+            CursorPage<CategoryInformation> categoriesInformationPage = categoryService.getAllCategoriesWithFiltersAfter(description, mode, lastId, size);
+
+            if (categoriesInformationPage.getContent().isEmpty()) {
+                return new ResponseEntity<>("No categories found", HttpStatus.NOT_FOUND);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
+            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+            return new ResponseEntity<>(categoriesInformationPage, headers, HttpStatus.OK);
+        }
 
-        Page<CategoryInformation> categoriesInformation = categoryService.getAllCategoriesWithFilters(description, page, size);
+        Page<CategoryInformation> categoriesInformation = categoryService.getAllCategoriesWithFilters(description, mode, page, size);
         
         if (categoriesInformation.isEmpty()) {
             return new ResponseEntity<>("No categories found", HttpStatus.NOT_FOUND);
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,10 +26,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
 import pe.idat.dsfb.dcn.library.dtos.PublisherInformation;
 import pe.idat.dsfb.dcn.library.dtos.PublisherValidation;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Publisher;
 import pe.idat.dsfb.dcn.library.services.PublisherService;
+import pe.idat.dsfb.dcn.library.utils.ETagUtils;
 
 @RestController
 @RequestMapping("/api/publishers")
@@ -190,6 +195,10 @@ public class PublisherRestController {
                 schema = @Schema(implementation = PublisherInformation.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Publisher not modified since the version given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Publisher not found with the given ID",
@@ -198,17 +207,33 @@ public class PublisherRestController {
             )
         )
     })
-    public ResponseEntity<?> getPublisherWithBooks(@PathVariable Long id) {
+    public ResponseEntity<?> getPublisherWithBooks(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        PublisherInformation publisherInformation = publisherService.getPublisherWithBooks(id);
+        ResourceVersion version = publisherService.getVersion(id);
 
-        if (publisherInformation == null) {
+        if (version == null) {
             return new ResponseEntity<>("Publisher not found with ID: " + id, HttpStatus.NOT_FOUND);
         }
 
+        String eTag = ETagUtils.of(version);
+
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
         headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.add(HttpHeaders.ETAG, eTag);
+
+        // The version lookup is enough to answer a revalidation, the details are only loaded when they changed
+        if (ETagUtils.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        PublisherInformation publisherInformation = publisherService.getPublisherWithBooks(id);
+
+        if (publisherInformation == null) {
+            return new ResponseEntity<>("Publisher not found with ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
 
         return new ResponseEntity<>(publisherInformation, headers, HttpStatus.OK);
     }
@@ -253,7 +278,7 @@ public class PublisherRestController {
     @GetMapping("/page")
     @Operation(
         summary = "Get publishers with filters",
-        description = "Fetches a paginated list of publishers filtered by country and type."
+        description = "Fetches a paginated list of publishers filtered by country and type. Empty filters are ignored, the others must all match. The mode parameter selects how filters are matched: CONTAINS (default), PREFIX and EXACT, where PREFIX and EXACT can use indexes. FULLTEXT is not supported for publishers. When the after parameter is present, keyset pagination is used instead: results are ordered by ID, start after the opaque cursor (an empty value starts from the beginning) and the response carries a nextCursor instead of a total count. The size of a cursor page is kept between 1 and 100."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -264,6 +289,11 @@ public class PublisherRestController {
                 schema = @Schema(implementation = PublisherInformation.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "The provided cursor or search mode is not valid",
+            content = @Content(mediaType = "text/plain")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "No publishers found matching the filters",
@@ -275,10 +305,36 @@ public class PublisherRestController {
     public ResponseEntity<?> getAllPublishersWithFilters(
             @RequestParam(defaultValue = "") String country,
             @RequestParam(defaultValue = "") String type,
+            @RequestParam(defaultValue = "CONTAINS") SearchMode mode,
             @RequestParam(defaultValue = "0") int page, 
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
+
+        if (mode == SearchMode.FULLTEXT) {
+            return new ResponseEntity<>("Full-text search is not supported for publishers.", HttpStatus.BAD_REQUEST);
+        }
+
+        if (after != null) {
+            Long lastId = CursorPage.decodeCursor(after);
+
+            if (lastId == null) {
+                return new ResponseEntity<>("Invalid cursor: " + after, HttpStatus.BAD_REQUEST);
+            }
+
+            CursorPage<PublisherInformation> publishersInformationPage = publisherService.getAllPublishersWithFiltersAfter(country, type, mode, lastId, size);
+
+            if (publishersInformationPage.getContent().isEmpty()) {
+                return new ResponseEntity<>("No publishers found", HttpStatus.NOT_FOUND);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HttpHeaders.CONTENT_TYPE, "application/json");  
+            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+            return new ResponseEntity<>(publishersInformationPage, headers, HttpStatus.OK);
+        }
 
-        Page<PublisherInformation> publishersInformation = publisherService.getAllPublishersWithFilters(country, type, page, size);
+        Page<PublisherInformation> publishersInformation = publisherService.getAllPublishersWithFilters(country, type, mode, page, size);
         
         if (publishersInformation.isEmpty()) {
             return new ResponseEntity<>("No publishers found", HttpStatus.NOT_FOUND);
@@ -1,5 +1,6 @@
 package pe.idat.dsfb.dcn.library.dtos;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 public class AuthorInformation {
@@ -21,6 +22,11 @@ public class AuthorInformation {
         this.books = books;
     }
 
+    // Used by projection queries, the books are added afterwards
+    public AuthorInformation(Long id, String name, String nationality, LocalDate birthDate, String biography, String email) {
+        this(id, name, nationality, birthDate, biography, email, new ArrayList<>());
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,35 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import java.time.LocalDate;
+
+public class AuthorInformationForBookRow {
+    private Long bookId;
+    private Long authorId;
+    private String name;
+    private String nationality;
+    private LocalDate birthDate;
+    private String biography;
+    private String email;
+
+    public AuthorInformationForBookRow(Long bookId, Long authorId, String name, String nationality, LocalDate birthDate, String biography, String email) {
+        this.bookId = bookId;
+        this.authorId = authorId;
+        this.name = name;
+        this.nationality = nationality;
+        this.birthDate = birthDate;
+        this.biography = biography;
+        this.email = email;
+    }
+
+    public Long getBookId() {
+        return this.bookId;
+    }
+
+    public Long getAuthorId() {
+        return this.authorId;
+    }
+
+    public AuthorInformationForBook toAuthor() {
+        return new AuthorInformationForBook(name, nationality, birthDate, biography, email);
+    }
+}
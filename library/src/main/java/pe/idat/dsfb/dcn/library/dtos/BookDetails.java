@@ -41,6 +41,11 @@ public class BookDetails {
         this.categories = categories;
     }
 
+    // Used by projection queries, BookDetailsMapper sets the authors, publishers and categories afterwards
+    public BookDetails(Long id, String title, String ISBN, int pageCount, String language, double price, LocalDate publicationDate, String format) {
+        this(id, title, ISBN, pageCount, language, price, publicationDate, format, List.of(), List.of(), List.of());
+    }
+
     public void setId(long id) {
         this.id = id;
     }
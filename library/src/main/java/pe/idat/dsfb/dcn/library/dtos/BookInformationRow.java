@@ -0,0 +1,22 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import java.time.LocalDate;
+
+// One linked book of an author, publisher or category, ownerId is the id of that owner
+public class BookInformationRow {
+    private Long ownerId;
+    private BookInformation book;
+
+    public BookInformationRow(Long ownerId, String title, int pageCount, String language, LocalDate publicationDate) {
+        this.ownerId = ownerId;
+        this.book = new BookInformation(title, pageCount, language, publicationDate);
+    }
+
+    public Long getOwnerId() {
+        return this.ownerId;
+    }
+
+    public BookInformation getBook() {
+        return this.book;
+    }
+}
@@ -0,0 +1,37 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class BookSearchResult {
+    private long id;
+    private String title;
+    private double score;
+
+    public BookSearchResult(long id, String title, double score) {
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public double getScore() {
+        return this.score;
+    }
+}
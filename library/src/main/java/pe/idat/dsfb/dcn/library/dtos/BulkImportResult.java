@@ -0,0 +1,34 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResult {
+    private int received;
+    private int created;
+    private List<String> errors = new ArrayList<>();
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getReceived() {
+        return this.received;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getCreated() {
+        return this.created;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return this.errors;
+    }
+}
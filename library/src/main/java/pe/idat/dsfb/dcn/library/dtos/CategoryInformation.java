@@ -1,5 +1,6 @@
 package pe.idat.dsfb.dcn.library.dtos;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class CategoryInformation {
@@ -15,6 +16,11 @@ public class CategoryInformation {
         this.books = books;
     }
 
+    // Used by projection queries, the books are added afterwards
+    public CategoryInformation(Long id, String name, String description) {
+        this(id, name, description, new ArrayList<>());
+    }
+
     public void setID(long ID) {
         this.id = ID;
     }
@@ -0,0 +1,27 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class CategoryInformationForBookRow {
+    private Long bookId;
+    private Long categoryId;
+    private String name;
+    private String description;
+
+    public CategoryInformationForBookRow(Long bookId, Long categoryId, String name, String description) {
+        this.bookId = bookId;
+        this.categoryId = categoryId;
+        this.name = name;
+        this.description = description;
+    }
+
+    public Long getBookId() {
+        return this.bookId;
+    }
+
+    public Long getCategoryId() {
+        return this.categoryId;
+    }
+
+    public CategoryInformationForBook toCategory() {
+        return new CategoryInformationForBook(name, description);
+    }
+}
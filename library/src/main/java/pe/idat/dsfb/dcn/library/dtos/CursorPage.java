@@ -0,0 +1,66 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+public class CursorPage<T> {
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.nextCursor = nextCursor;
+    }
+
+    // The services read one row past the page to know whether there is a next one, so size + 1 must stay positive
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor.isEmpty()) {
+            return 0L;
+        }
+
+        try {
+            String lastId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(lastId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public List<T> getContent() {
+        return this.content;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+}
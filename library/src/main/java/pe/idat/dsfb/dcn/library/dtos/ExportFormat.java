@@ -0,0 +1,24 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    // One JSON line per group of rows, each line holding one array per column
+    COLUMNAR("application/x-ndjson", "columnar.ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public String getExtension() {
+        return this.extension;
+    }
+}
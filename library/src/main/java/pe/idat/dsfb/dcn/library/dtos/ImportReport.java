@@ -0,0 +1,70 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+    private long received;
+    private long created;
+    private long rejected;
+    private long elapsedMillis;
+    private String failure;
+    private List<ImportStageReport> stages = new ArrayList<>();
+    private List<String> rejections = new ArrayList<>();
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getReceived() {
+        return this.received;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getCreated() {
+        return this.created;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getRejected() {
+        return this.rejected;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public String getFailure() {
+        return this.failure;
+    }
+
+    public void setStages(List<ImportStageReport> stages) {
+        this.stages = stages;
+    }
+
+    public List<ImportStageReport> getStages() {
+        return this.stages;
+    }
+
+    public void setRejections(List<String> rejections) {
+        this.rejections = rejections;
+    }
+
+    public List<String> getRejections() {
+        return this.rejections;
+    }
+}
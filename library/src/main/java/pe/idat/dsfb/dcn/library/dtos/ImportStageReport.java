@@ -0,0 +1,47 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class ImportStageReport {
+    private String stage;
+    private long records;
+    private long busyMillis;
+    private double recordsPerSecond;
+
+    public ImportStageReport(String stage, long records, long busyMillis) {
+        this.stage = stage;
+        this.records = records;
+        this.busyMillis = busyMillis;
+        this.recordsPerSecond = busyMillis == 0 ? records * 1000.0 : records * 1000.0 / busyMillis;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getStage() {
+        return this.stage;
+    }
+
+    public void setRecords(long records) {
+        this.records = records;
+    }
+
+    public long getRecords() {
+        return this.records;
+    }
+
+    public void setBusyMillis(long busyMillis) {
+        this.busyMillis = busyMillis;
+    }
+
+    public long getBusyMillis() {
+        return this.busyMillis;
+    }
+
+    public void setRecordsPerSecond(double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    public double getRecordsPerSecond() {
+        return this.recordsPerSecond;
+    }
+}
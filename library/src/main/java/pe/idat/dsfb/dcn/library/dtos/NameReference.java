@@ -0,0 +1,19 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class NameReference {
+    private Long id;
+    private String name;
+
+    public NameReference(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -1,5 +1,6 @@
 package pe.idat.dsfb.dcn.library.dtos;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class PublisherInformation {
@@ -31,6 +32,11 @@ public class PublisherInformation {
         this.books = books;
     }
 
+    // Used by projection queries, the books are added afterwards
+    public PublisherInformation(Long id, String name, String contactNumber, String email, String type, String country, String website) {
+        this(id, name, contactNumber, email, type, country, website, new ArrayList<>());
+    }
+
     public void setID(long ID) {
         this.id = ID;
     }
@@ -0,0 +1,29 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class PublisherInformationForBookRow {
+    private Long bookId;
+    private Long publisherId;
+    private String name;
+    private String type;
+    private String website;
+
+    public PublisherInformationForBookRow(Long bookId, Long publisherId, String name, String type, String website) {
+        this.bookId = bookId;
+        this.publisherId = publisherId;
+        this.name = name;
+        this.type = type;
+        this.website = website;
+    }
+
+    public Long getBookId() {
+        return this.bookId;
+    }
+
+    public Long getPublisherId() {
+        return this.publisherId;
+    }
+
+    public PublisherInformationForBook toPublisher() {
+        return new PublisherInformationForBook(name, type, website);
+    }
+}
@@ -0,0 +1,10 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+// A row's own version plus aggregates of the rows linked to it: the count and id sum change when the set of links
+// changes, the version sum when any linked row is edited, since versions only grow
+public interface ResourceVersion {
+    Long getVersion();
+    Long getLinkedCount();
+    Long getLinkedIds();
+    Long getLinkedVersions();
+}
@@ -0,0 +1,28 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+
+public enum SearchMode {
+    CONTAINS,
+    PREFIX,
+    EXACT,
+    FULLTEXT;
+
+    private static final EscapeCharacter ESCAPE = EscapeCharacter.of('!');
+
+    // Only PREFIX and EXACT patterns can be resolved through a B-tree index. An empty value stays empty, the filter
+    // queries skip such a filter instead of matching every row with '%'.
+    public String toPattern(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+
+        String escaped = ESCAPE.escape(value);
+
+        return switch (this) {
+            case PREFIX -> escaped + "%";
+            case EXACT -> escaped;
+            default -> "%" + escaped + "%";
+        };
+    }
+}
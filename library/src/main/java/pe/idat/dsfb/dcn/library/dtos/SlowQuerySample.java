@@ -0,0 +1,39 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import java.time.Instant;
+
+public class SlowQuerySample {
+    private String id;
+    private String sql;
+    private String parameters;
+    private double elapsedMillis;
+    private Instant executedAt;
+
+    public SlowQuerySample(String id, String sql, String parameters, double elapsedMillis, Instant executedAt) {
+        this.id = id;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.elapsedMillis = elapsedMillis;
+        this.executedAt = executedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+}
@@ -0,0 +1,49 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class SqlQueryStatistics {
+    private String id;
+    private String sql;
+    private long count;
+    private long slowCount;
+    private double totalMillis;
+    private double meanMillis;
+    private double maxMillis;
+
+    public SqlQueryStatistics(String id, String sql, long count, long slowCount, double totalMillis, double meanMillis, double maxMillis) {
+        this.id = id;
+        this.sql = sql;
+        this.count = count;
+        this.slowCount = slowCount;
+        this.totalMillis = totalMillis;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+}
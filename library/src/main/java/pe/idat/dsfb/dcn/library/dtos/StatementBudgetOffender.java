@@ -0,0 +1,37 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+public class StatementBudgetOffender {
+    private String endpoint;
+    private long requests;
+    private long overBudget;
+    private int maxStatements;
+    private double averageStatements;
+
+    public StatementBudgetOffender(String endpoint, long requests, long overBudget, int maxStatements, double averageStatements) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.overBudget = overBudget;
+        this.maxStatements = maxStatements;
+        this.averageStatements = averageStatements;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getOverBudget() {
+        return overBudget;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public double getAverageStatements() {
+        return averageStatements;
+    }
+}
@@ -3,6 +3,9 @@ package pe.idat.dsfb.dcn.library.models;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Column;
@@ -11,14 +14,20 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "author")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
+@Table(name = "author", indexes = {
+    @Index(name = "idx_author_name", columnList = "name"),
+    @Index(name = "idx_author_nationality", columnList = "nationality")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -36,6 +45,9 @@ public class Author {
     private String biography;
     @Column(name = "email", nullable = false, length = 100)
     private String email;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 
     @JsonBackReference
     @ManyToMany(mappedBy = "authors", fetch = FetchType.LAZY)
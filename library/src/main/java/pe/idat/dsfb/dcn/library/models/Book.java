@@ -3,22 +3,30 @@ package pe.idat.dsfb.dcn.library.models;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "book")
+@Table(name = "book", indexes = {
+    @Index(name = "idx_book_language", columnList = "language"),
+    @Index(name = "idx_book_format", columnList = "format")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -40,7 +48,11 @@ public class Book {
     private LocalDate publicationDate;
     @Column(name = "format", nullable = false, length = 20)
     private String format;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-authors")
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "book_author",
@@ -49,6 +61,7 @@ public class Book {
     )
     private List<Author> authors;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-publishers")
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "book_publisher",
@@ -57,6 +70,7 @@ public class Book {
     )
     private List<Publisher> publishers;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-categories")
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "book_category",
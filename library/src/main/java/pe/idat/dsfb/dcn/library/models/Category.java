@@ -2,6 +2,9 @@ package pe.idat.dsfb.dcn.library.models;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Column;
@@ -10,14 +13,20 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
+@Table(name = "category", indexes = {
+    @Index(name = "idx_category_name", columnList = "name"),
+    @Index(name = "idx_category_description", columnList = "description")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,6 +38,9 @@ public class Category {
     private String name;
     @Column(name = "description", nullable = false, length = 100)
     private String description;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 
     @JsonBackReference
     @ManyToMany(mappedBy = "categories", fetch = FetchType.LAZY)
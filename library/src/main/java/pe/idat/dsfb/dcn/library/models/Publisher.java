@@ -2,6 +2,9 @@ package pe.idat.dsfb.dcn.library.models;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Column;
@@ -10,14 +13,20 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "publisher")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "publisher")
+@Table(name = "publisher", indexes = {
+    @Index(name = "idx_publisher_country", columnList = "country"),
+    @Index(name = "idx_publisher_type", columnList = "type")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -37,6 +46,9 @@ public class Publisher {
     private String country;
     @Column(name = "website", nullable = false, length = 100)
     private String website;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 
     @JsonBackReference
     @ManyToMany(mappedBy = "publishers", fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package pe.idat.dsfb.dcn.library.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,17 +11,72 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformation;
+import pe.idat.dsfb.dcn.library.dtos.BookInformationRow;
+import pe.idat.dsfb.dcn.library.dtos.NameReference;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
 import pe.idat.dsfb.dcn.library.models.Author;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+    String INFORMATION = "SELECT new pe.idat.dsfb.dcn.library.dtos.AuthorInformation(" +
+           "a.id, a.name, a.nationality, a.birthDate, a.biography, a.email) FROM Author a ";
+    String BOOK_ROWS = "SELECT new pe.idat.dsfb.dcn.library.dtos.BookInformationRow(" +
+           "a.id, b.title, b.pageCount, b.language, b.publicationDate) FROM Author a JOIN a.books b ";
+
     Optional<Author> findByName(String name);
-    List<Author> findByNameIn(List<String> names); 
+
+    @Query("SELECT a.version AS version, " +
+           "(SELECT COUNT(b) FROM Author x JOIN x.books b WHERE x.id = a.id) AS linkedCount, " +
+           "(SELECT COALESCE(SUM(b.id), 0) FROM Author x JOIN x.books b WHERE x.id = a.id) AS linkedIds, " +
+           "(SELECT COALESCE(SUM(b.version), 0) FROM Author x JOIN x.books b WHERE x.id = a.id) AS linkedVersions " +
+           "FROM Author a WHERE a.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+    List<Author> findByNameIn(List<String> names);
+
+    @Query("SELECT new pe.idat.dsfb.dcn.library.dtos.NameReference(a.id, a.name) FROM Author a")
+    List<NameReference> findAllNames();
     
-    @Query("SELECT a FROM Author a WHERE " +
-           "a.name LIKE %:name% OR " +
-           "a.nationality LIKE %:nationality%")
-    Page<Author> findAllWithFilters(@Param("name") String name,
+    @Query(value = INFORMATION + "WHERE " +
+           "(:name = '' OR a.name LIKE :name ESCAPE '!') AND " +
+           "(:nationality = '' OR a.nationality LIKE :nationality ESCAPE '!')",
+           countQuery = "SELECT COUNT(a) FROM Author a WHERE " +
+           "(:name = '' OR a.name LIKE :name ESCAPE '!') AND " +
+           "(:nationality = '' OR a.nationality LIKE :nationality ESCAPE '!')")
+    Page<AuthorInformation> findInformationWithFilters(@Param("name") String name,
                                     @Param("nationality") String nationality,
                                     Pageable pageable);
+
+    @Query(INFORMATION + "WHERE " +
+           "(:name = '' OR a.name LIKE :name ESCAPE '!') AND " +
+           "(:nationality = '' OR a.nationality LIKE :nationality ESCAPE '!') AND " +
+           "a.id > :after ORDER BY a.id")
+    List<AuthorInformation> findInformationWithFiltersAfter(@Param("name") String name,
+                                    @Param("nationality") String nationality,
+                                    @Param("after") long after,
+                                    Pageable pageable);
+
+    @Query(value = "SELECT id FROM author WHERE MATCH(name) AGAINST (:name IN NATURAL LANGUAGE MODE)",
+           countQuery = "SELECT COUNT(*) FROM author WHERE MATCH(name) AGAINST (:name IN NATURAL LANGUAGE MODE)",
+           nativeQuery = true)
+    Page<Long> searchIdsByName(@Param("name") String name, Pageable pageable);
+
+    @Query(value = "SELECT id FROM author WHERE MATCH(name) AGAINST (:name IN NATURAL LANGUAGE MODE) " +
+                   "AND id > :after ORDER BY id",
+           nativeQuery = true)
+    List<Long> findIdsByNameAfter(@Param("name") String name,
+                                    @Param("after") long after,
+                                    Pageable pageable);
+
+    @Query(INFORMATION + "ORDER BY a.id")
+    List<AuthorInformation> findAllInformation();
+
+    @Query(INFORMATION + "WHERE a.id IN :ids ORDER BY a.id")
+    List<AuthorInformation> findInformationByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(BOOK_ROWS)
+    List<BookInformationRow> findAllBookRows();
+
+    @Query(BOOK_ROWS + "WHERE a.id IN :ids")
+    List<BookInformationRow> findBookRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
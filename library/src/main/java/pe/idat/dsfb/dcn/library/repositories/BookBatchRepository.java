@@ -0,0 +1,83 @@
+package pe.idat.dsfb.dcn.library.repositories;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+
+// Hibernate cannot batch inserts on IDENTITY ids, so bulk imports write books and join rows with JDBC batches
+@Repository
+public class BookBatchRepository {
+
+    private static final String INSERT_BOOK =
+        "INSERT INTO book (title, isbn, page_count, language, price, publication_date, format, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Book> books) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_BOOK, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Book book = books.get(i);
+                    ps.setString(1, book.getTitle());
+                    ps.setString(2, book.getISBN());
+                    ps.setInt(3, book.getPageCount());
+                    ps.setString(4, book.getLanguage());
+                    ps.setDouble(5, book.getPrice());
+                    ps.setDate(6, Date.valueOf(book.getPublicationDate()));
+                    ps.setString(7, book.getFormat());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return books.size();
+                }
+            },
+            keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        for (int i = 0; i < books.size(); i++) {
+            books.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+
+        insertLinks("book_author", "author_id", books, Book::getAuthors, Author::getId);
+        insertLinks("book_publisher", "publisher_id", books, Book::getPublishers, Publisher::getId);
+        insertLinks("book_category", "category_id", books, Book::getCategories, Category::getId);
+    }
+
+    private <T> void insertLinks(String table, String column, List<Book> books, Function<Book, List<T>> linked, Function<T, Long> id) {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (Book book : books) {
+            for (T item : linked.apply(book)) {
+                rows.add(new Object[] { book.getId(), id.apply(item) });
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (book_id, " + column + ") VALUES (?, ?)", rows);
+        }
+    }
+}
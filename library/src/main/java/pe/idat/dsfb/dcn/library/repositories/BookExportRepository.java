@@ -0,0 +1,55 @@
+package pe.idat.dsfb.dcn.library.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+// Reads the catalogue row by row with plain JDBC, the linked names come pre-joined as '|' separated lists
+@Repository
+public class BookExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int GROUP_CONCAT_MAX_LEN = 1024 * 1024;
+
+    private static final String COLUMNS =
+        "b.id, b.title, b.isbn, b.page_count, b.language, b.price, b.publication_date, b.format, " +
+        "(SELECT GROUP_CONCAT(a.name ORDER BY a.name SEPARATOR '|') FROM book_author ba JOIN author a ON a.id = ba.author_id WHERE ba.book_id = b.id) AS author_names, " +
+        "(SELECT GROUP_CONCAT(c.name ORDER BY c.name SEPARATOR '|') FROM book_category bc JOIN category c ON c.id = bc.category_id WHERE bc.book_id = b.id) AS category_names, " +
+        "(SELECT GROUP_CONCAT(p.name ORDER BY p.name SEPARATOR '|') FROM book_publisher bp JOIN publisher p ON p.id = bp.publisher_id WHERE bp.book_id = b.id) AS publisher_names " +
+        "FROM book b ORDER BY b.id";
+
+    private static final String EXPORT = "SELECT " + COLUMNS;
+
+    // SET_VAR only lasts for this statement, a SET SESSION would stay on the pooled connection after the export
+    private static final String MYSQL_EXPORT = "SELECT /*+ SET_VAR(group_concat_max_len = " + GROUP_CONCAT_MAX_LEN + ") */ " + COLUMNS;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean mysql;
+
+    public void forEachRow(RowCallbackHandler handler) {
+        boolean streaming = isMySQL();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(streaming ? MYSQL_EXPORT : EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J only streams rows instead of loading the whole result when the fetch size is Integer.MIN_VALUE
+            statement.setFetchSize(streaming ? Integer.MIN_VALUE : FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    private boolean isMySQL() {
+        if (mysql == null) {
+            String databaseProduct = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            mysql = "MySQL".equalsIgnoreCase(databaseProduct);
+        }
+
+        return mysql;
+    }
+}
@@ -1,5 +1,7 @@
 package pe.idat.dsfb.dcn.library.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -9,16 +11,111 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
 import pe.idat.dsfb.dcn.library.models.Book;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+    // Read paths select only the columns the DTOs need, straight into the DTOs, without managed entities.
+    String DETAILS = "SELECT new pe.idat.dsfb.dcn.library.dtos.BookDetails(" +
+           "b.id, b.title, b.ISBN, b.pageCount, b.language, b.price, b.publicationDate, b.format) FROM Book b ";
+    String AUTHOR_ROWS = "SELECT new pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBookRow(" +
+           "b.id, a.id, a.name, a.nationality, a.birthDate, a.biography, a.email) FROM Book b JOIN b.authors a ";
+    String PUBLISHER_ROWS = "SELECT new pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBookRow(" +
+           "b.id, p.id, p.name, p.type, p.website) FROM Book b JOIN b.publishers p ";
+    String CATEGORY_ROWS = "SELECT new pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBookRow(" +
+           "b.id, c.id, c.name, c.description) FROM Book b JOIN b.categories c ";
+
     Optional<Book> findByISBN(String ISBN);
 
-    @Query("SELECT b FROM Book b WHERE " +
-           "b.language LIKE %:language% OR " +
-           "b.format LIKE %:format%")
-    Page<Book> findAllWithFilters(@Param("language") String language,
+    @Query("SELECT b.ISBN FROM Book b WHERE b.ISBN IN :isbns")
+    List<String> findISBNsIn(@Param("isbns") Collection<String> isbns);
+
+    // The book owns its links, so linking or unlinking bumps b.version. The linked sums follow edits of the linked rows.
+    @Query("SELECT b.version AS version, " +
+           "(SELECT COUNT(a) FROM Book x JOIN x.authors a WHERE x.id = b.id) + " +
+           "(SELECT COUNT(p) FROM Book x JOIN x.publishers p WHERE x.id = b.id) + " +
+           "(SELECT COUNT(c) FROM Book x JOIN x.categories c WHERE x.id = b.id) AS linkedCount, " +
+           "(SELECT COALESCE(SUM(a.id), 0) FROM Book x JOIN x.authors a WHERE x.id = b.id) + " +
+           "(SELECT COALESCE(SUM(p.id), 0) FROM Book x JOIN x.publishers p WHERE x.id = b.id) + " +
+           "(SELECT COALESCE(SUM(c.id), 0) FROM Book x JOIN x.categories c WHERE x.id = b.id) AS linkedIds, " +
+           "(SELECT COALESCE(SUM(a.version), 0) FROM Book x JOIN x.authors a WHERE x.id = b.id) + " +
+           "(SELECT COALESCE(SUM(p.version), 0) FROM Book x JOIN x.publishers p WHERE x.id = b.id) + " +
+           "(SELECT COALESCE(SUM(c.version), 0) FROM Book x JOIN x.categories c WHERE x.id = b.id) AS linkedVersions " +
+           "FROM Book b WHERE b.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    @Query(value = DETAILS + "WHERE " +
+           "(:language = '' OR b.language LIKE :language ESCAPE '!') AND " +
+           "(:format = '' OR b.format LIKE :format ESCAPE '!')",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE " +
+           "(:language = '' OR b.language LIKE :language ESCAPE '!') AND " +
+           "(:format = '' OR b.format LIKE :format ESCAPE '!')")
+    Page<BookDetails> findDetailsWithFilters(@Param("language") String language,
+                                    @Param("format") String format,
+                                    Pageable pageable);
+
+    @Query(DETAILS + "WHERE " +
+           "(:language = '' OR b.language LIKE :language ESCAPE '!') AND " +
+           "(:format = '' OR b.format LIKE :format ESCAPE '!') AND " +
+           "b.id > :after ORDER BY b.id")
+    List<BookDetails> findDetailsWithFiltersAfter(@Param("language") String language,
                                     @Param("format") String format,
+                                    @Param("after") long after,
                                     Pageable pageable);
+
+    @Query(value = "SELECT id FROM book WHERE MATCH(title) AGAINST (:title IN NATURAL LANGUAGE MODE)",
+           countQuery = "SELECT COUNT(*) FROM book WHERE MATCH(title) AGAINST (:title IN NATURAL LANGUAGE MODE)",
+           nativeQuery = true)
+    Page<Long> searchIdsByTitle(@Param("title") String title, Pageable pageable);
+
+    @Query(value = "SELECT id FROM book WHERE MATCH(title) AGAINST (:title IN NATURAL LANGUAGE MODE) " +
+                   "AND id > :after ORDER BY id",
+           nativeQuery = true)
+    List<Long> findIdsByTitleAfter(@Param("title") String title,
+                                    @Param("after") long after,
+                                    Pageable pageable);
+
+    @Query(DETAILS + "ORDER BY b.id")
+    List<BookDetails> findAllDetails();
+
+    @Query(DETAILS + "WHERE b.id IN :ids ORDER BY b.id")
+    List<BookDetails> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DETAILS + "WHERE b.id > :after ORDER BY b.id")
+    List<BookDetails> findDetailsAfter(@Param("after") long after, Pageable pageable);
+
+    @Query(AUTHOR_ROWS + "ORDER BY b.id")
+    List<AuthorInformationForBookRow> findAllAuthorRows();
+
+    @Query(AUTHOR_ROWS + "WHERE b.id IN :ids ORDER BY b.id")
+    List<AuthorInformationForBookRow> findAuthorRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(PUBLISHER_ROWS + "ORDER BY b.id")
+    List<PublisherInformationForBookRow> findAllPublisherRows();
+
+    @Query(PUBLISHER_ROWS + "WHERE b.id IN :ids ORDER BY b.id")
+    List<PublisherInformationForBookRow> findPublisherRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(CATEGORY_ROWS + "ORDER BY b.id")
+    List<CategoryInformationForBookRow> findAllCategoryRows();
+
+    @Query(CATEGORY_ROWS + "WHERE b.id IN :ids ORDER BY b.id")
+    List<CategoryInformationForBookRow> findCategoryRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :after ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.authors WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> findWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.publishers WHERE b.id IN :ids")
+    List<Book> findWithPublishersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.categories WHERE b.id IN :ids")
+    List<Book> findWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,5 +1,6 @@
 package pe.idat.dsfb.dcn.library.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,15 +11,67 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import pe.idat.dsfb.dcn.library.dtos.BookInformationRow;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformation;
+import pe.idat.dsfb.dcn.library.dtos.NameReference;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
 import pe.idat.dsfb.dcn.library.models.Category;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    String INFORMATION = "SELECT new pe.idat.dsfb.dcn.library.dtos.CategoryInformation(" +
+           "c.id, c.name, c.description) FROM Category c ";
+    String BOOK_ROWS = "SELECT new pe.idat.dsfb.dcn.library.dtos.BookInformationRow(" +
+           "c.id, b.title, b.pageCount, b.language, b.publicationDate) FROM Category c JOIN c.books b ";
+
     Optional<Category> findByName(String name);
+
+    @Query("SELECT c.version AS version, " +
+           "(SELECT COUNT(b) FROM Category x JOIN x.books b WHERE x.id = c.id) AS linkedCount, " +
+           "(SELECT COALESCE(SUM(b.id), 0) FROM Category x JOIN x.books b WHERE x.id = c.id) AS linkedIds, " +
+           "(SELECT COALESCE(SUM(b.version), 0) FROM Category x JOIN x.books b WHERE x.id = c.id) AS linkedVersions " +
+           "FROM Category c WHERE c.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
     List<Category> findByNameIn(List<String> names);
 
-    @Query("SELECT c FROM Category c WHERE " +
-           "c.description LIKE %:description%")
-    Page<Category> findAllWithFilters(@Param("description") String description,
+    @Query("SELECT new pe.idat.dsfb.dcn.library.dtos.NameReference(c.id, c.name) FROM Category c")
+    List<NameReference> findAllNames();
+
+    @Query(value = INFORMATION + "WHERE " +
+           "(:description = '' OR c.description LIKE :description ESCAPE '!')",
+           countQuery = "SELECT COUNT(c) FROM Category c WHERE " +
+           "(:description = '' OR c.description LIKE :description ESCAPE '!')")
+    Page<CategoryInformation> findInformationWithFilters(@Param("description") String description,
+                                    Pageable pageable);
+
+    @Query(INFORMATION + "WHERE " +
+           "(:description = '' OR c.description LIKE :description ESCAPE '!') AND " +
+           "c.id > :after ORDER BY c.id")
+    List<CategoryInformation> findInformationWithFiltersAfter(@Param("description") String description,
+                                    @Param("after") long after,
+                                    Pageable pageable);
+
+    @Query(value = "SELECT id FROM category WHERE MATCH(description) AGAINST (:description IN NATURAL LANGUAGE MODE)",
+           countQuery = "SELECT COUNT(*) FROM category WHERE MATCH(description) AGAINST (:description IN NATURAL LANGUAGE MODE)",
+           nativeQuery = true)
+    Page<Long> searchIdsByDescription(@Param("description") String description, Pageable pageable);
+
+    @Query(value = "SELECT id FROM category WHERE MATCH(description) AGAINST (:description IN NATURAL LANGUAGE MODE) " +
+                   "AND id > :after ORDER BY id",
+           nativeQuery = true)
+    List<Long> findIdsByDescriptionAfter(@Param("description") String description,
+                                    @Param("after") long after,
                                     Pageable pageable);
+
+    @Query(INFORMATION + "ORDER BY c.id")
+    List<CategoryInformation> findAllInformation();
+
+    @Query(INFORMATION + "WHERE c.id IN :ids ORDER BY c.id")
+    List<CategoryInformation> findInformationByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(BOOK_ROWS)
+    List<BookInformationRow> findAllBookRows();
+
+    @Query(BOOK_ROWS + "WHERE c.id IN :ids")
+    List<BookInformationRow> findBookRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
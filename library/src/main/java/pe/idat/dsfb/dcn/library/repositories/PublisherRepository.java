@@ -1,5 +1,6 @@
 package pe.idat.dsfb.dcn.library.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,17 +11,60 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import pe.idat.dsfb.dcn.library.dtos.BookInformationRow;
+import pe.idat.dsfb.dcn.library.dtos.NameReference;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformation;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
 import pe.idat.dsfb.dcn.library.models.Publisher;
 
 @Repository
 public interface PublisherRepository extends JpaRepository<Publisher, Long> {
+    String INFORMATION = "SELECT new pe.idat.dsfb.dcn.library.dtos.PublisherInformation(" +
+           "p.id, p.name, p.contactNumber, p.email, p.type, p.country, p.website) FROM Publisher p ";
+    String BOOK_ROWS = "SELECT new pe.idat.dsfb.dcn.library.dtos.BookInformationRow(" +
+           "p.id, b.title, b.pageCount, b.language, b.publicationDate) FROM Publisher p JOIN p.books b ";
+
     Optional<Publisher> findByName(String name);
+
+    @Query("SELECT p.version AS version, " +
+           "(SELECT COUNT(b) FROM Publisher x JOIN x.books b WHERE x.id = p.id) AS linkedCount, " +
+           "(SELECT COALESCE(SUM(b.id), 0) FROM Publisher x JOIN x.books b WHERE x.id = p.id) AS linkedIds, " +
+           "(SELECT COALESCE(SUM(b.version), 0) FROM Publisher x JOIN x.books b WHERE x.id = p.id) AS linkedVersions " +
+           "FROM Publisher p WHERE p.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
     List<Publisher> findByNameIn(List<String> names);
 
-    @Query("SELECT p FROM Publisher p WHERE " +
-           "p.country LIKE %:country% OR " +
-           "p.type LIKE %:type%")
-    Page<Publisher> findAllWithFilters(@Param("country") String country,
+    @Query("SELECT new pe.idat.dsfb.dcn.library.dtos.NameReference(p.id, p.name) FROM Publisher p")
+    List<NameReference> findAllNames();
+
+    @Query(value = INFORMATION + "WHERE " +
+           "(:country = '' OR p.country LIKE :country ESCAPE '!') AND " +
+           "(:type = '' OR p.type LIKE :type ESCAPE '!')",
+           countQuery = "SELECT COUNT(p) FROM Publisher p WHERE " +
+           "(:country = '' OR p.country LIKE :country ESCAPE '!') AND " +
+           "(:type = '' OR p.type LIKE :type ESCAPE '!')")
+    Page<PublisherInformation> findInformationWithFilters(@Param("country") String country,
+                                    @Param("type") String type,
+                                    Pageable pageable);
+
+    @Query(INFORMATION + "WHERE " +
+           "(:country = '' OR p.country LIKE :country ESCAPE '!') AND " +
+           "(:type = '' OR p.type LIKE :type ESCAPE '!') AND " +
+           "p.id > :after ORDER BY p.id")
+    List<PublisherInformation> findInformationWithFiltersAfter(@Param("country") String country,
                                     @Param("type") String type,
+                                    @Param("after") long after,
                                     Pageable pageable);
+
+    @Query(INFORMATION + "ORDER BY p.id")
+    List<PublisherInformation> findAllInformation();
+
+    @Query(INFORMATION + "WHERE p.id IN :ids ORDER BY p.id")
+    List<PublisherInformation> findInformationByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(BOOK_ROWS)
+    List<BookInformationRow> findAllBookRows();
+
+    @Query(BOOK_ROWS + "WHERE p.id IN :ids")
+    List<BookInformationRow> findBookRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
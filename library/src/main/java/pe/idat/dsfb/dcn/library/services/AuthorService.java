@@ -2,28 +2,50 @@ package pe.idat.dsfb.dcn.library.services;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
 import pe.idat.dsfb.dcn.library.dtos.AuthorValidation;
 import pe.idat.dsfb.dcn.library.dtos.AuthorInformation;
-import pe.idat.dsfb.dcn.library.dtos.BookInformation;
+import pe.idat.dsfb.dcn.library.dtos.BookInformationRow;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Author;
 import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+import pe.idat.dsfb.dcn.library.utils.Projections;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class AuthorService {
 
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookDetailsCache bookDetailsCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NameDictionary<Author> nameDictionary = new NameDictionary<>(Author.class);
+
     @Transactional
     public Author create(AuthorValidation authorValidation) {
 
@@ -34,7 +56,10 @@ public class AuthorService {
         author.setBiography(authorValidation.getBiography());
         author.setEmail(authorValidation.getEmail());
 
-        return authorRepository.saveAndFlush(author);
+        Author createdAuthor = authorRepository.saveAndFlush(author);
+        nameDictionary.put(createdAuthor.getId(), createdAuthor.getName());
+
+        return createdAuthor;
     }
 
     @Transactional
@@ -52,7 +77,12 @@ public class AuthorService {
         author.setBiography(authorValidation.getBiography());
         author.setEmail(authorValidation.getEmail());
 
-        return authorRepository.saveAndFlush(author);
+        Author updatedAuthor = authorRepository.saveAndFlush(author);
+        nameDictionary.put(updatedAuthor.getId(), updatedAuthor.getName());
+        bookSearchIndex.updateAuthor(updatedAuthor);
+        bookDetailsCache.evict(updatedAuthor.getBooks());
+
+        return updatedAuthor;
     }
 
     public Author getByName(String name){
@@ -73,91 +103,107 @@ public class AuthorService {
             return false;
         }
 
+        bookDetailsCache.evict(result.get().getBooks());
         authorRepository.deleteById(id);
+        nameDictionary.remove(id);
+        bookSearchIndex.removeAuthor(id);
 
         return true;
     }
 
-    public AuthorInformation getAuthorWithBooks(Long id) {
-        Optional<Author> result = authorRepository.findById(id);
+    // The ETag version and the body behind it come from the primary, see BookService.getVersion
+    @Transactional
+    public ResourceVersion getVersion(Long id) {
+        Optional<ResourceVersion> result = authorRepository.findVersionById(id);
 
         if(!result.isPresent()){
             return null;
         }
 
-        Author author = result.get();
-
-        List<BookInformation> booksInformation = author.getBooks().stream()
-                                    .map(book -> new BookInformation(
-                                            book.getTitle(),
-                                            book.getPageCount(),
-                                            book.getLanguage(),
-                                            book.getPublicationDate()))
-                                    .collect(Collectors.toList());
-
-        return new AuthorInformation(
-                author.getId(),
-                author.getName(),
-                author.getNationality(),
-                author.getBirthDate(),
-                author.getBiography(),
-                author.getEmail(),
-                booksInformation
-        );
+        return result.get();
+    }
+
+    @Transactional
+    public AuthorInformation getAuthorWithBooks(Long id) {
+        List<AuthorInformation> result = withBooks(authorRepository.findInformationByIdIn(List.of(id)));
+
+        if(result.isEmpty()){
+            return null;
+        }
+
+        return result.get(0);
     }
 
+    @Transactional(readOnly = true)
     public List<AuthorInformation> getAllAuthorsWithBooks() {
-        List<Author> authors = authorRepository.findAll();
-
-        return authors.stream().map(author -> {
-            List<BookInformation> booksInformation = author.getBooks().stream()
-                    .map(book -> new BookInformation(
-                            book.getTitle(),
-                            book.getPageCount(),
-                            book.getLanguage(),
-                            book.getPublicationDate()))
-                    .collect(Collectors.toList());
-
-            return new AuthorInformation(
-                    author.getId(),
-                    author.getName(),
-                    author.getNationality(),
-                    author.getBirthDate(),
-                    author.getBiography(),
-                    author.getEmail(),
-                    booksInformation
-            );
-        }).collect(Collectors.toList());
+        List<AuthorInformation> authors = authorRepository.findAllInformation();
+
+        return Projections.attach(authors, AuthorInformation::getId, authorRepository.findAllBookRows(),
+                BookInformationRow::getOwnerId, (author, row) -> author.getBooks().add(row.getBook()));
     }
 
-    public Page<AuthorInformation> getAllAuthorsWithFilters(String name, String nationality, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<AuthorInformation> getAllAuthorsWithFilters(String name, String nationality, SearchMode mode, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
+        Page<AuthorInformation> authorsPage;
+
+        if (mode == SearchMode.FULLTEXT) {
+            Page<Long> ids = authorRepository.searchIdsByName(name, pageable);
+            List<AuthorInformation> authors = ids.isEmpty() ? List.of() : authorRepository.findInformationByIdIn(ids.getContent());
+            authorsPage = new PageImpl<>(Projections.inOrder(ids.getContent(), authors, AuthorInformation::getId), pageable, ids.getTotalElements());
+        } else {
+            authorsPage = authorRepository.findInformationWithFilters(mode.toPattern(name), mode.toPattern(nationality), pageable);
+        }
+
+        withBooks(authorsPage.getContent());
+
+        return authorsPage;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AuthorInformation> getAllAuthorsWithFiltersAfter(String name, String nationality, SearchMode mode, long after, int size) {
+        size = CursorPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<AuthorInformation> authors;
+
+        if (mode == SearchMode.FULLTEXT) {
+            List<Long> ids = authorRepository.findIdsByNameAfter(name, after, limit);
+            authors = ids.isEmpty() ? List.of() : authorRepository.findInformationByIdIn(ids);
+        } else {
+            authors = authorRepository.findInformationWithFiltersAfter(mode.toPattern(name), mode.toPattern(nationality), after, limit);
+        }
+
+        boolean hasNext = authors.size() > size;
 
-        Page<Author> authorsPage = authorRepository.findAllWithFilters(name, nationality, pageable);
-
-        return authorsPage.map(author -> {
-            List<BookInformation> booksInformation = author.getBooks().stream()
-                    .map(book -> new BookInformation(
-                            book.getTitle(),
-                            book.getPageCount(),
-                            book.getLanguage(),
-                            book.getPublicationDate()))
-                    .collect(Collectors.toList());
-
-            return new AuthorInformation(
-                    author.getId(),
-                    author.getName(),
-                    author.getNationality(),
-                    author.getBirthDate(),
-                    author.getBiography(),
-                    author.getEmail(),
-                    booksInformation
-            );
-        });
+        if (hasNext) {
+            authors = authors.subList(0, size);
+        }
+
+        String nextCursor = hasNext ? CursorPage.encodeCursor(authors.get(authors.size() - 1).getId()) : null;
+
+        return new CursorPage<>(withBooks(authors), nextCursor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadNameDictionary() {
+        nameDictionary.load(authorRepository.findAllNames());
     }
 
+    @Transactional
     public List<Author> findByNames(List<String> names) {
-        return authorRepository.findByNameIn(names);
+        return nameDictionary.findByNames(names, entityManager, authorRepository::findByNameIn);
     }
 
+    private List<AuthorInformation> withBooks(List<AuthorInformation> authors) {
+        if (authors.isEmpty()) {
+            return authors;
+        }
+
+        List<Long> ids = authors.stream().map(AuthorInformation::getId).toList();
+
+        return Projections.attach(authors, AuthorInformation::getId, authorRepository.findBookRowsByIdIn(ids),
+                BookInformationRow::getOwnerId, (author, row) -> author.getBooks().add(row.getBook()));
+    }
 }
@@ -0,0 +1,35 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import pe.idat.dsfb.dcn.library.models.Book;
+
+// Evictions are deferred until the surrounding transaction commits, so a concurrent read cannot cache the old state again.
+@Component
+public class BookDetailsCache {
+
+    public static final String NAME = "bookDetails";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void evict(Long bookId) {
+        Cache cache = cacheManager.getCache(NAME);
+
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).evict(bookId);
+        }
+    }
+
+    public void evict(Collection<Book> books) {
+        if (books != null) {
+            books.forEach(book -> evict(book.getId()));
+        }
+    }
+}
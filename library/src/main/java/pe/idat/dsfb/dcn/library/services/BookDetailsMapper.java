@@ -0,0 +1,92 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBookRow;
+
+// Attaches the link rows to their books. Rows arrive ordered by book id, so each book's rows form one run and its list
+// is allocated at its exact size. An author, publisher or category linked to several books is mapped to one DTO
+// instance that all of them share.
+@Component
+public class BookDetailsMapper {
+
+    public List<BookDetails> attach(List<BookDetails> books,
+            List<AuthorInformationForBookRow> authors,
+            List<PublisherInformationForBookRow> publishers,
+            List<CategoryInformationForBookRow> categories) {
+        if (books.isEmpty()) {
+            return books;
+        }
+
+        Map<Long, BookDetails> byId = HashMap.newHashMap(books.size());
+
+        for (BookDetails book : books) {
+            byId.put(book.getId(), book);
+        }
+
+        attach(byId, authors, AuthorInformationForBookRow::getBookId, AuthorInformationForBookRow::getAuthorId,
+                AuthorInformationForBookRow::toAuthor, BookDetails::setAuthors, BookDetails::getAuthors);
+        attach(byId, publishers, PublisherInformationForBookRow::getBookId, PublisherInformationForBookRow::getPublisherId,
+                PublisherInformationForBookRow::toPublisher, BookDetails::setPublishers, BookDetails::getPublishers);
+        attach(byId, categories, CategoryInformationForBookRow::getBookId, CategoryInformationForBookRow::getCategoryId,
+                CategoryInformationForBookRow::toCategory, BookDetails::setCategories, BookDetails::getCategories);
+
+        return books;
+    }
+
+    private static <R, D> void attach(Map<Long, BookDetails> books, List<R> rows,
+            Function<R, Long> bookId, Function<R, Long> referenceId, Function<R, D> toDto,
+            BiConsumer<BookDetails, List<D>> set, Function<BookDetails, List<D>> get) {
+        Map<Long, D> shared = new HashMap<>();
+        int size = rows.size();
+        int start = 0;
+
+        while (start < size) {
+            Long id = bookId.apply(rows.get(start));
+            int end = start + 1;
+
+            while (end < size && id.equals(bookId.apply(rows.get(end)))) {
+                end++;
+            }
+
+            BookDetails book = books.get(id);
+
+            if (book != null) {
+                // A second run for the same book only happens if the rows were not ordered, keep what is already there
+                List<D> current = get.apply(book);
+                List<D> dtos = new ArrayList<>(current.size() + end - start);
+                dtos.addAll(current);
+
+                for (int i = start; i < end; i++) {
+                    R row = rows.get(i);
+                    Long key = referenceId.apply(row);
+                    D dto = shared.get(key);
+
+                    if (dto == null) {
+                        dto = toDto.apply(row);
+                        shared.put(key, dto);
+                    }
+
+                    dtos.add(dto);
+                }
+
+                set.accept(book, dtos);
+            }
+
+            start = end;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.idat.dsfb.dcn.library.dtos.ExportFormat;
+import pe.idat.dsfb.dcn.library.repositories.BookExportRepository;
+import pe.idat.dsfb.dcn.library.utils.CsvWriter;
+
+@Service
+@Timed(value = "library.service", histogram = true)
+public class BookExportService {
+
+    private static final int ROW_GROUP_SIZE = 1000;
+    private static final String LIST_SEPARATOR = "|";
+
+    // Same columns the import reads, so an export can be fed back to POST /api/books/import
+    private static final String[] CSV_HEADER = {
+        "id", "title", "isbn", "pageCount", "language", "price", "publicationDate", "format",
+        "authorNames", "categoryNames", "publisherNames"
+    };
+
+    @Autowired
+    private BookExportRepository bookExportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream outputStream) throws IOException {
+        try {
+            switch (format) {
+                case CSV -> exportCsv(outputStream);
+                case NDJSON -> exportNdjson(outputStream);
+                case COLUMNAR -> exportColumnar(outputStream);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportCsv(OutputStream outputStream) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(CSV_HEADER);
+
+        bookExportRepository.forEachRow(rs -> {
+            try {
+                csv.writeRecord(
+                    Long.toString(rs.getLong("id")),
+                    rs.getString("title"),
+                    rs.getString("isbn"),
+                    Integer.toString(rs.getInt("page_count")),
+                    rs.getString("language"),
+                    Double.toString(rs.getDouble("price")),
+                    date(rs),
+                    rs.getString("format"),
+                    rs.getString("author_names"),
+                    rs.getString("category_names"),
+                    rs.getString("publisher_names"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+    }
+
+    private void exportNdjson(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+
+        bookExportRepository.forEachRow(rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("title", rs.getString("title"));
+                generator.writeStringField("ISBN", rs.getString("isbn"));
+                generator.writeNumberField("pageCount", rs.getInt("page_count"));
+                generator.writeStringField("language", rs.getString("language"));
+                generator.writeNumberField("price", rs.getDouble("price"));
+                generator.writeStringField("publicationDate", date(rs));
+                generator.writeStringField("format", rs.getString("format"));
+                writeNames(generator, "authorNames", rs.getString("author_names"));
+                writeNames(generator, "categoryNames", rs.getString("category_names"));
+                writeNames(generator, "publisherNames", rs.getString("publisher_names"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        generator.flush();
+    }
+
+    // Rows are buffered one group at a time and written column by column, memory is bounded by ROW_GROUP_SIZE
+    private void exportColumnar(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        RowGroup group = new RowGroup();
+
+        bookExportRepository.forEachRow(rs -> {
+            group.add(rs);
+
+            if (group.size == ROW_GROUP_SIZE) {
+                writeRowGroup(generator, group);
+            }
+        });
+
+        if (group.size > 0) {
+            writeRowGroup(generator, group);
+        }
+
+        generator.flush();
+    }
+
+    private void writeRowGroup(JsonGenerator generator, RowGroup group) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("rows", group.size);
+            generator.writeArrayFieldStart("id");
+            for (int i = 0; i < group.size; i++) {
+                generator.writeNumber(group.ids[i]);
+            }
+            generator.writeEndArray();
+            writeStrings(generator, "title", group.titles, group.size);
+            writeStrings(generator, "ISBN", group.isbns, group.size);
+            generator.writeArrayFieldStart("pageCount");
+            for (int i = 0; i < group.size; i++) {
+                generator.writeNumber(group.pageCounts[i]);
+            }
+            generator.writeEndArray();
+            writeStrings(generator, "language", group.languages, group.size);
+            generator.writeArrayFieldStart("price");
+            for (int i = 0; i < group.size; i++) {
+                generator.writeNumber(group.prices[i]);
+            }
+            generator.writeEndArray();
+            writeStrings(generator, "publicationDate", group.publicationDates, group.size);
+            writeStrings(generator, "format", group.formats, group.size);
+            writeNameLists(generator, "authorNames", group.authorNames, group.size);
+            writeNameLists(generator, "categoryNames", group.categoryNames, group.size);
+            writeNameLists(generator, "publisherNames", group.publisherNames, group.size);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        group.size = 0;
+    }
+
+    private static void writeStrings(JsonGenerator generator, String name, String[] values, int size) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (int i = 0; i < size; i++) {
+            generator.writeString(values[i]);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNameLists(JsonGenerator generator, String name, String[] values, int size) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (int i = 0; i < size; i++) {
+            writeNames(generator, values[i]);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNames(JsonGenerator generator, String name, String names) throws IOException {
+        generator.writeFieldName(name);
+        writeNames(generator, names);
+    }
+
+    // Splits the '|' separated list without a regex or an intermediate array
+    private static void writeNames(JsonGenerator generator, String names) throws IOException {
+        generator.writeStartArray();
+
+        if (names != null) {
+            int start = 0;
+            int end;
+
+            while ((end = names.indexOf(LIST_SEPARATOR, start)) >= 0) {
+                generator.writeString(names.substring(start, end));
+                start = end + 1;
+            }
+
+            generator.writeString(names.substring(start));
+        }
+
+        generator.writeEndArray();
+    }
+
+    private static String date(ResultSet rs) throws SQLException {
+        LocalDate publicationDate = rs.getObject("publication_date", LocalDate.class);
+        return publicationDate == null ? null : publicationDate.toString();
+    }
+
+    private static class RowGroup {
+        private final long[] ids = new long[ROW_GROUP_SIZE];
+        private final String[] titles = new String[ROW_GROUP_SIZE];
+        private final String[] isbns = new String[ROW_GROUP_SIZE];
+        private final int[] pageCounts = new int[ROW_GROUP_SIZE];
+        private final String[] languages = new String[ROW_GROUP_SIZE];
+        private final double[] prices = new double[ROW_GROUP_SIZE];
+        private final String[] publicationDates = new String[ROW_GROUP_SIZE];
+        private final String[] formats = new String[ROW_GROUP_SIZE];
+        private final String[] authorNames = new String[ROW_GROUP_SIZE];
+        private final String[] categoryNames = new String[ROW_GROUP_SIZE];
+        private final String[] publisherNames = new String[ROW_GROUP_SIZE];
+        private int size;
+
+        void add(ResultSet rs) throws SQLException {
+            ids[size] = rs.getLong("id");
+            titles[size] = rs.getString("title");
+            isbns[size] = rs.getString("isbn");
+            pageCounts[size] = rs.getInt("page_count");
+            languages[size] = rs.getString("language");
+            prices[size] = rs.getDouble("price");
+            publicationDates[size] = date(rs);
+            formats[size] = rs.getString("format");
+            authorNames[size] = rs.getString("author_names");
+            categoryNames[size] = rs.getString("category_names");
+            publisherNames[size] = rs.getString("publisher_names");
+            size++;
+        }
+    }
+}
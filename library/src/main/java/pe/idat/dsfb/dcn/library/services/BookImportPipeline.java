@@ -0,0 +1,433 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.annotation.Timed;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.idat.dsfb.dcn.library.dtos.BookValidation;
+import pe.idat.dsfb.dcn.library.dtos.ImportReport;
+import pe.idat.dsfb.dcn.library.dtos.ImportStageReport;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.utils.CsvReader;
+
+// parse -> validate -> resolve -> persist, each stage on its own thread and joined by bounded queues,
+// so a slow stage blocks the ones before it instead of letting records pile up in memory
+@Service
+@Timed(value = "library.service", histogram = true)
+public class BookImportPipeline {
+
+    private static final int RECORD_QUEUE_CAPACITY = 1000;
+    private static final int BATCH_QUEUE_CAPACITY = 4;
+    // Batches resolved but possibly not committed yet: the queued ones plus the one being persisted
+    private static final int IN_FLIGHT_BATCHES = BATCH_QUEUE_CAPACITY + 2;
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+    private static final long POLL_MILLIS = 100;
+
+    private static final Row END = new Row(0, null);
+    private static final List<Book> END_BATCH = new ArrayList<>();
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ImportReport run(InputStream input, boolean csv) {
+        Run run = new Run();
+        long start = System.nanoTime();
+
+        Thread validate = start("book-import-validate", run, () -> validate(run));
+        Thread resolve = start("book-import-resolve", run, () -> resolve(run));
+        Thread persist = start("book-import-persist", run, () -> persist(run));
+
+        try {
+            if (csv) {
+                parseCsv(input, run);
+            } else {
+                parseJson(input, run);
+            }
+            put(run.parsed, END, run);
+        } catch (CancellationException e) {
+            // a later stage failed, its error is already recorded
+        } catch (InterruptedException e) {
+            // the failure makes the other stages stop at their next poll
+            Thread.currentThread().interrupt();
+            run.fail(e);
+        } catch (Exception e) {
+            run.fail(e);
+        }
+
+        try {
+            validate.join();
+            resolve.join();
+            persist.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.fail(e);
+        }
+
+        ImportReport report = new ImportReport();
+        report.setReceived(run.parse.records.get());
+        report.setCreated(run.created.get());
+        report.setRejected(run.rejected.get());
+        report.setRejections(run.rejections);
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        report.setStages(List.of(run.parse.report(), run.validate.report(), run.resolve.report(), run.persist.report()));
+
+        if (run.failure.get() != null) {
+            report.setFailure(run.failure.get().getMessage());
+        }
+
+        return report;
+    }
+
+    private void parseCsv(InputStream input, Run run) throws IOException, InterruptedException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        long position = 0;
+
+        while (true) {
+            long started = System.nanoTime();
+            List<String> fields;
+
+            try {
+                fields = reader.readRecord();
+            } catch (CsvReader.FieldTooLongException e) {
+                // the reader skipped to the next line, the rows after it are read as usual
+                position++;
+                run.reject(position, e.getMessage());
+                run.parse.record(started, 1);
+                continue;
+            }
+
+            if (fields == null) {
+                break;
+            }
+
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+
+            position++;
+            BookValidation record = null;
+
+            try {
+                record = toRecord(columns, fields);
+            } catch (RuntimeException e) {
+                run.reject(position, "Unreadable row: " + e.getMessage());
+            }
+
+            run.parse.record(started, 1);
+
+            if (record != null) {
+                put(run.parsed, new Row(position, record), run);
+            }
+        }
+    }
+
+    // Accepts a JSON array or newline-delimited objects, only one record is held as a tree at a time
+    private void parseJson(InputStream input, Run run) throws IOException, InterruptedException {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            JsonToken token = parser.nextToken();
+
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+
+            long position = 0;
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                long started = System.nanoTime();
+                position++;
+                JsonNode node = parser.readValueAsTree();
+                BookValidation record = null;
+
+                try {
+                    record = objectMapper.treeToValue(node, BookValidation.class);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    run.reject(position, "Unreadable record: " + e.getMessage());
+                }
+
+                run.parse.record(started, 1);
+
+                if (record != null) {
+                    put(run.parsed, new Row(position, record), run);
+                }
+
+                token = parser.nextToken();
+            }
+        }
+    }
+
+    private void validate(Run run) throws InterruptedException {
+        Row row;
+
+        while ((row = take(run.parsed, run)) != END) {
+            long started = System.nanoTime();
+            String error = bookImportService.validate(row.record());
+            run.validate.record(started, 1);
+
+            if (error != null) {
+                run.reject(row.position(), error);
+            } else {
+                put(run.validated, row, run);
+            }
+        }
+
+        put(run.validated, END, run);
+    }
+
+    private void resolve(Run run) throws InterruptedException {
+        Deque<Set<String>> inFlight = new ArrayDeque<>();
+        List<Row> batch = new ArrayList<>();
+        Row row;
+
+        while ((row = take(run.validated, run)) != END) {
+            batch.add(row);
+
+            if (batch.size() == BookImportService.BATCH_SIZE) {
+                resolveBatch(batch, inFlight, run);
+                batch = new ArrayList<>();
+            }
+        }
+
+        resolveBatch(batch, inFlight, run);
+        put(run.resolved, END_BATCH, run);
+    }
+
+    private void resolveBatch(List<Row> batch, Deque<Set<String>> inFlight, Run run) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        List<BookValidation> records = batch.stream().map(Row::record).toList();
+
+        Set<String> existing = bookImportService.existingISBNs(records);
+        Map<String, Author> authors = bookImportService.resolve(records, BookValidation::getAuthorNames, bookImportService::findAuthors, Author::getName);
+        Map<String, Publisher> publishers = bookImportService.resolve(records, BookValidation::getPublisherNames, bookImportService::findPublishers, Publisher::getName);
+        Map<String, Category> categories = bookImportService.resolve(records, BookValidation::getCategoryNames, bookImportService::findCategories, Category::getName);
+
+        Set<String> isbns = new HashSet<>();
+        List<Book> books = new ArrayList<>();
+
+        for (Row row : batch) {
+            String isbn = row.record().getISBN().toLowerCase(Locale.ROOT);
+
+            if (existing.contains(isbn) || inFlight.stream().anyMatch(previous -> previous.contains(isbn)) || !isbns.add(isbn)) {
+                run.reject(row.position(), "A book with this ISBN already exists.");
+                continue;
+            }
+
+            Book book = bookImportService.toBook(row.record(), authors, publishers, categories);
+
+            if (book.getAuthors().isEmpty() || book.getCategories().isEmpty() || book.getPublishers().isEmpty()) {
+                run.reject(row.position(), "One or more of the provided names (author, category or publisher) do not exist.");
+                continue;
+            }
+
+            books.add(book);
+        }
+
+        // Earlier batches may still be queued for persistence, so the database check alone cannot see their ISBNs
+        inFlight.addLast(isbns);
+
+        if (inFlight.size() > IN_FLIGHT_BATCHES) {
+            inFlight.removeFirst();
+        }
+
+        run.resolve.record(started, batch.size());
+
+        if (!books.isEmpty()) {
+            put(run.resolved, books, run);
+        }
+    }
+
+    private void persist(Run run) throws InterruptedException {
+        List<Book> books;
+
+        while ((books = take(run.resolved, run)) != END_BATCH) {
+            long started = System.nanoTime();
+            run.created.addAndGet(bookImportService.insert(books));
+            run.persist.record(started, books.size());
+        }
+    }
+
+    private BookValidation toRecord(Map<String, Integer> columns, List<String> fields) {
+        BookValidation record = new BookValidation();
+        record.setTitle(field(columns, fields, "title"));
+        record.setISBN(field(columns, fields, "isbn"));
+        record.setLanguage(field(columns, fields, "language"));
+        record.setFormat(field(columns, fields, "format"));
+        record.setAuthorNames(names(field(columns, fields, "authornames")));
+        record.setCategoryNames(names(field(columns, fields, "categorynames")));
+        record.setPublisherNames(names(field(columns, fields, "publishernames")));
+
+        String pageCount = field(columns, fields, "pagecount");
+        String price = field(columns, fields, "price");
+        String publicationDate = field(columns, fields, "publicationdate");
+
+        if (pageCount != null) {
+            record.setPageCount(Integer.parseInt(pageCount));
+        }
+
+        if (price != null) {
+            record.setPrice(Double.parseDouble(price));
+        }
+
+        if (publicationDate != null) {
+            record.setLocalDate(LocalDate.parse(publicationDate));
+        }
+
+        return record;
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> fields, String column) {
+        Integer index = columns.get(column);
+
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+
+        return fields.get(index).trim();
+    }
+
+    // List columns hold several names separated by '|'
+    private static List<String> names(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        return Arrays.stream(value.split("\\|")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+    }
+
+    private static Thread start(String name, Run run, StageBody body) {
+        return Thread.ofPlatform().name(name).start(() -> {
+            try {
+                body.run();
+            } catch (CancellationException e) {
+                // another stage failed first
+            } catch (Throwable e) {
+                run.fail(e);
+            }
+        });
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T item, Run run) throws InterruptedException {
+        while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (run.failure.get() != null) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue, Run run) throws InterruptedException {
+        T item;
+
+        while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            if (run.failure.get() != null) {
+                throw new CancellationException();
+            }
+        }
+
+        return item;
+    }
+
+    private interface StageBody {
+        void run() throws Exception;
+    }
+
+    private record Row(long position, BookValidation record) {
+    }
+
+    private static class Stage {
+        private final String name;
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void record(long started, int count) {
+            busyNanos.addAndGet(System.nanoTime() - started);
+            records.addAndGet(count);
+        }
+
+        ImportStageReport report() {
+            return new ImportStageReport(name, records.get(), TimeUnit.NANOSECONDS.toMillis(busyNanos.get()));
+        }
+    }
+
+    private static class Run {
+        private final BlockingQueue<Row> parsed = new ArrayBlockingQueue<>(RECORD_QUEUE_CAPACITY);
+        private final BlockingQueue<Row> validated = new ArrayBlockingQueue<>(RECORD_QUEUE_CAPACITY);
+        private final BlockingQueue<List<Book>> resolved = new ArrayBlockingQueue<>(BATCH_QUEUE_CAPACITY);
+
+        private final Stage parse = new Stage("parse");
+        private final Stage validate = new Stage("validate");
+        private final Stage resolve = new Stage("resolve");
+        private final Stage persist = new Stage("persist");
+
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<String> rejections = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // Only the first rejections are kept so a bad multi-GB feed cannot grow the report without bound
+        void reject(long position, String message) {
+            if (rejected.incrementAndGet() <= MAX_REPORTED_REJECTIONS) {
+                rejections.add("Record " + position + ": " + message);
+            }
+        }
+
+        void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+}
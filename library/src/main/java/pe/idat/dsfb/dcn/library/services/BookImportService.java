@@ -0,0 +1,247 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.annotation.Timed;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import pe.idat.dsfb.dcn.library.dtos.BookValidation;
+import pe.idat.dsfb.dcn.library.dtos.BulkImportResult;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookBatchRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookRepository;
+import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+import pe.idat.dsfb.dcn.library.repositories.PublisherRepository;
+
+@Service
+@Timed(value = "library.service", histogram = true)
+public class BookImportService {
+
+    public static final int BATCH_SIZE = 500;
+    private static final int LOOKUP_SIZE = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PublisherRepository publisherRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BookBatchRepository bookBatchRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookDetailsCache bookDetailsCache;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Records are checked and inserted independently, a bad record is reported and the rest are still imported
+    public BulkImportResult importAll(List<BookValidation> records) {
+        BulkImportResult result = new BulkImportResult();
+        result.setReceived(records.size());
+
+        List<BookValidation> valid = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            String error = validate(records.get(i));
+
+            if (error != null) {
+                result.getErrors().add("Record " + i + ": " + error);
+            } else {
+                valid.add(records.get(i));
+                positions.add(i);
+            }
+        }
+
+        Map<String, Author> authors = resolve(valid, BookValidation::getAuthorNames, this::findAuthors, Author::getName);
+        Map<String, Publisher> publishers = resolve(valid, BookValidation::getPublisherNames, this::findPublishers, Publisher::getName);
+        Map<String, Category> categories = resolve(valid, BookValidation::getCategoryNames, this::findCategories, Category::getName);
+        Set<String> isbns = existingISBNs(valid);
+
+        List<Book> batch = new ArrayList<>();
+        List<Integer> batchPositions = new ArrayList<>();
+
+        for (int i = 0; i < valid.size(); i++) {
+            BookValidation record = valid.get(i);
+            String prefix = "Record " + positions.get(i) + ": ";
+
+            if (!isbns.add(key(record.getISBN()))) {
+                result.getErrors().add(prefix + "A book with this ISBN already exists.");
+                continue;
+            }
+
+            Book book = toBook(record, authors, publishers, categories);
+
+            if (book.getAuthors().isEmpty() || book.getCategories().isEmpty() || book.getPublishers().isEmpty()) {
+                result.getErrors().add(prefix + "One or more of the provided names (author, category or publisher) do not exist.");
+                continue;
+            }
+
+            batch.add(book);
+            batchPositions.add(positions.get(i));
+
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch, batchPositions, result);
+                batch = new ArrayList<>();
+                batchPositions = new ArrayList<>();
+            }
+        }
+
+        insert(batch, batchPositions, result);
+
+        return result;
+    }
+
+    // A failed batch rolls back alone, its records are reported and the batches before and after it are kept
+    private void insert(List<Book> batch, List<Integer> positions, BulkImportResult result) {
+        try {
+            result.setCreated(result.getCreated() + insert(batch));
+        } catch (DataAccessException e) {
+            String error = "Not imported, its batch failed: " + e.getMostSpecificCause().getMessage();
+            positions.forEach(position -> result.getErrors().add("Record " + position + ": " + error));
+        }
+    }
+
+    public String validate(BookValidation record) {
+        Set<ConstraintViolation<BookValidation>> violations = validator.validate(record);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder message = new StringBuilder();
+        violations.forEach(violation -> message.append(violation.getMessage()).append(" "));
+
+        return message.toString().trim();
+    }
+
+    // Each batch commits on its own, so a large feed keeps its progress and holds locks only briefly
+    public int insert(List<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> bookBatchRepository.insertAll(books));
+
+        books.forEach(book -> {
+            bookSearchIndex.index(book);
+            bookDetailsCache.evict(book.getId());
+        });
+
+        return books.size();
+    }
+
+    public Book toBook(BookValidation record, Map<String, Author> authors, Map<String, Publisher> publishers, Map<String, Category> categories) {
+        Book book = new Book();
+        book.setTitle(record.getTitle());
+        book.setISBN(record.getISBN());
+        book.setPageCount(record.getPageCount());
+        book.setLanguage(record.getLanguage());
+        book.setPrice(record.getPrice());
+        book.setPublicationDate(record.getPublicationDate());
+        book.setFormat(record.getFormat());
+        book.setAuthors(pick(record.getAuthorNames(), authors));
+        book.setPublishers(pick(record.getPublisherNames(), publishers));
+        book.setCategories(pick(record.getCategoryNames(), categories));
+
+        return book;
+    }
+
+    public <T> Map<String, T> resolve(List<BookValidation> records, Function<BookValidation, List<String>> names,
+            Function<List<String>, List<T>> finder, Function<T, String> name) {
+        Set<String> distinct = new LinkedHashSet<>();
+        records.forEach(record -> names.apply(record).stream().filter(Objects::nonNull).forEach(distinct::add));
+
+        Map<String, T> resolved = new HashMap<>();
+
+        for (List<String> chunk : chunks(new ArrayList<>(distinct))) {
+            finder.apply(chunk).forEach(item -> resolved.put(key(name.apply(item)), item));
+        }
+
+        return resolved;
+    }
+
+    public List<Author> findAuthors(List<String> names) {
+        return authorRepository.findByNameIn(names);
+    }
+
+    public List<Publisher> findPublishers(List<String> names) {
+        return publisherRepository.findByNameIn(names);
+    }
+
+    public List<Category> findCategories(List<String> names) {
+        return categoryRepository.findByNameIn(names);
+    }
+
+    public Set<String> existingISBNs(List<BookValidation> records) {
+        List<String> isbns = records.stream().map(BookValidation::getISBN).distinct().toList();
+        Set<String> existing = new HashSet<>();
+
+        for (List<String> chunk : chunks(isbns)) {
+            bookRepository.findISBNsIn(chunk).forEach(isbn -> existing.add(key(isbn)));
+        }
+
+        return existing;
+    }
+
+    private static <T> List<T> pick(List<String> names, Map<String, T> resolved) {
+        List<T> items = new ArrayList<>();
+
+        names.stream().filter(Objects::nonNull).map(BookImportService::key).distinct().forEach(name -> {
+            T item = resolved.get(name);
+
+            if (item != null) {
+                items.add(item);
+            }
+        });
+
+        return items;
+    }
+
+    private static List<List<String>> chunks(List<String> values) {
+        List<List<String>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < values.size(); i += LOOKUP_SIZE) {
+            chunks.add(values.subList(i, Math.min(i + LOOKUP_SIZE, values.size())));
+        }
+
+        return chunks;
+    }
+
+    // Lookups go through the case-insensitive column collation, so the maps are keyed the same way
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,362 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pe.idat.dsfb.dcn.library.dtos.BookSearchResult;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+
+// In-memory inverted index over the book titles and the names of their authors, publishers and categories. Changes made
+// inside a transaction are captured when they are requested and applied once it commits, so a rollback leaves the index
+// as it was and a search never finds a book the database does not have yet.
+@Component
+public class BookSearchIndex {
+
+    private static final int TITLE_WEIGHT = 5;
+    private static final int AUTHOR_NAME_WEIGHT = 3;
+    private static final int CATEGORY_NAME_WEIGHT = 2;
+    private static final int PUBLISHER_NAME_WEIGHT = 2;
+    private static final int AUTHOR_BIOGRAPHY_WEIGHT = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, String[]> authors = new HashMap<>();
+    private final Map<Long, String> publishers = new HashMap<>();
+    private final Map<Long, String> categories = new HashMap<>();
+    // Books per author, publisher and category id, so a renamed source only re-indexes the books that reference it
+    private final Map<Long, Set<Long>> authorBooks = new HashMap<>();
+    private final Map<Long, Set<Long>> publisherBooks = new HashMap<>();
+    private final Map<Long, Set<Long>> categoryBooks = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Book book) {
+        long bookId = book.getId();
+        Document document = new Document(
+            book.getTitle(),
+            ids(book.getAuthors(), Author::getId),
+            ids(book.getPublishers(), Publisher::getId),
+            ids(book.getCategories(), Category::getId)
+        );
+
+        // The lazy associations are read now, the session may be gone by the time the transaction commits
+        Map<Long, String[]> authorTexts = new HashMap<>();
+        book.getAuthors().forEach(author -> authorTexts.put(author.getId(), new String[] { author.getName(), author.getBiography() }));
+        Map<Long, String> publisherNames = new HashMap<>();
+        book.getPublishers().forEach(publisher -> publisherNames.put(publisher.getId(), publisher.getName()));
+        Map<Long, String> categoryNames = new HashMap<>();
+        book.getCategories().forEach(category -> categoryNames.put(category.getId(), category.getName()));
+
+        afterCommit(() -> {
+            authorTexts.forEach(authors::putIfAbsent);
+            publisherNames.forEach(publishers::putIfAbsent);
+            categoryNames.forEach(categories::putIfAbsent);
+
+            Document previous = documents.put(bookId, document);
+
+            if (previous != null) {
+                unlink(bookId, previous);
+                removePostings(bookId, previous);
+            }
+
+            link(bookId, document);
+            addPostings(bookId, document);
+        });
+    }
+
+    public void remove(long bookId) {
+        afterCommit(() -> {
+            Document previous = documents.remove(bookId);
+
+            if (previous != null) {
+                unlink(bookId, previous);
+                removePostings(bookId, previous);
+            }
+        });
+    }
+
+    public void updateAuthor(Author author) {
+        long id = author.getId();
+        String[] text = { author.getName(), author.getBiography() };
+        afterCommit(() -> updateSource(authorBooks.get(id), () -> authors.put(id, text)));
+    }
+
+    public void updatePublisher(Publisher publisher) {
+        long id = publisher.getId();
+        String name = publisher.getName();
+        afterCommit(() -> updateSource(publisherBooks.get(id), () -> publishers.put(id, name)));
+    }
+
+    public void updateCategory(Category category) {
+        long id = category.getId();
+        String name = category.getName();
+        afterCommit(() -> updateSource(categoryBooks.get(id), () -> categories.put(id, name)));
+    }
+
+    public void removeAuthor(long id) {
+        afterCommit(() -> updateSource(authorBooks.get(id), () -> authors.remove(id)));
+    }
+
+    public void removePublisher(long id) {
+        afterCommit(() -> updateSource(publisherBooks.get(id), () -> publishers.remove(id)));
+    }
+
+    public void removeCategory(long id) {
+        afterCommit(() -> updateSource(categoryBooks.get(id), () -> categories.remove(id)));
+    }
+
+    public void clear() {
+        afterCommit(() -> {
+            postings.clear();
+            documents.clear();
+            authors.clear();
+            publishers.clear();
+            categories.clear();
+            authorBooks.clear();
+            publisherBooks.clear();
+            categoryBooks.clear();
+        });
+    }
+
+    // Merges the posting lists of the query terms in id order and keeps the best scored books in a bounded heap.
+    public List<BookSearchResult> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList.Cursor> cursors = new ArrayList<>(terms.size());
+            double[] idfs = new double[terms.size()];
+
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+
+                if (postingList != null) {
+                    PostingList.Cursor cursor = postingList.cursor();
+                    cursor.next();
+                    idfs[cursors.size()] = Math.log(1.0 + (double) documents.size() / postingList.size());
+                    cursors.add(cursor);
+                }
+            }
+
+            // The heap never holds more than limit + 1 hits or more than one per indexed book
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, documents.size()) + 1);
+            boolean[] exhausted = new boolean[cursors.size()];
+            int active = cursors.size();
+
+            while (active > 0) {
+                long current = Long.MAX_VALUE;
+
+                for (int i = 0; i < cursors.size(); i++) {
+                    if (!exhausted[i]) {
+                        current = Math.min(current, cursors.get(i).id());
+                    }
+                }
+
+                double score = 0;
+
+                for (int i = 0; i < cursors.size(); i++) {
+                    PostingList.Cursor cursor = cursors.get(i);
+
+                    if (!exhausted[i] && cursor.id() == current) {
+                        score += cursor.weight() * idfs[i];
+
+                        if (!cursor.next()) {
+                            exhausted[i] = true;
+                            active--;
+                        }
+                    }
+                }
+
+                if (best.size() < limit || score > best.peek().score()) {
+                    best.add(new Hit(current, score));
+
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<BookSearchResult> results = new ArrayList<>(best.size());
+
+            while (!best.isEmpty()) {
+                Hit hit = best.poll();
+                results.add(new BookSearchResult(hit.bookId(), documents.get(hit.bookId()).title(), hit.score()));
+            }
+
+            Collections.reverse(results);
+
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called under the write lock, only the books that reference the source are re-indexed
+    private void updateSource(Set<Long> bookIds, Runnable update) {
+        List<Long> affected = bookIds == null ? List.of() : new ArrayList<>(bookIds);
+
+        affected.forEach(bookId -> removePostings(bookId, documents.get(bookId)));
+        update.run();
+        affected.forEach(bookId -> addPostings(bookId, documents.get(bookId)));
+    }
+
+    private void link(long bookId, Document document) {
+        for (long authorId : document.authorIds()) {
+            authorBooks.computeIfAbsent(authorId, key -> new HashSet<>()).add(bookId);
+        }
+
+        for (long publisherId : document.publisherIds()) {
+            publisherBooks.computeIfAbsent(publisherId, key -> new HashSet<>()).add(bookId);
+        }
+
+        for (long categoryId : document.categoryIds()) {
+            categoryBooks.computeIfAbsent(categoryId, key -> new HashSet<>()).add(bookId);
+        }
+    }
+
+    private void unlink(long bookId, Document document) {
+        unlink(authorBooks, document.authorIds(), bookId);
+        unlink(publisherBooks, document.publisherIds(), bookId);
+        unlink(categoryBooks, document.categoryIds(), bookId);
+    }
+
+    private static void unlink(Map<Long, Set<Long>> books, long[] sourceIds, long bookId) {
+        for (long sourceId : sourceIds) {
+            Set<Long> linked = books.get(sourceId);
+
+            if (linked != null && linked.remove(bookId) && linked.isEmpty()) {
+                books.remove(sourceId);
+            }
+        }
+    }
+
+    // Applies the change under the write lock once the surrounding transaction commits, right away outside of one
+    private void afterCommit(Runnable change) {
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locked.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                locked.run();
+            }
+        });
+    }
+
+    private void addPostings(long bookId, Document document) {
+        termWeights(document).forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new PostingList()).add(bookId, weight));
+    }
+
+    private void removePostings(long bookId, Document document) {
+        termWeights(document).keySet().forEach(term -> {
+            PostingList postingList = postings.get(term);
+
+            if (postingList != null) {
+                postingList.remove(bookId);
+
+                if (postingList.size() == 0) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private Map<String, Integer> termWeights(Document document) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, document.title(), TITLE_WEIGHT);
+
+        for (long authorId : document.authorIds()) {
+            String[] author = authors.get(authorId);
+
+            if (author != null) {
+                addTerms(weights, author[0], AUTHOR_NAME_WEIGHT);
+                addTerms(weights, author[1], AUTHOR_BIOGRAPHY_WEIGHT);
+            }
+        }
+
+        for (long publisherId : document.publisherIds()) {
+            addTerms(weights, publishers.get(publisherId), PUBLISHER_NAME_WEIGHT);
+        }
+
+        for (long categoryId : document.categoryIds()) {
+            addTerms(weights, categories.get(categoryId), CATEGORY_NAME_WEIGHT);
+        }
+
+        return weights;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> terms = new ArrayList<>();
+
+        for (String term : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (term.length() > 1) {
+                terms.add(term);
+            }
+        }
+
+        return terms;
+    }
+
+    private static <T> long[] ids(List<T> entities, ToLongFunction<T> id) {
+        return entities == null ? new long[0] : entities.stream().mapToLong(id).toArray();
+    }
+
+    private record Document(String title, long[] authorIds, long[] publisherIds, long[] categoryIds) {
+    }
+
+    private record Hit(long bookId, double score) implements Comparable<Hit> {
+        @Override
+        public int compareTo(Hit other) {
+            return Double.compare(score, other.score());
+        }
+    }
+}
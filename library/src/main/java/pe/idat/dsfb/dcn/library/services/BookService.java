@@ -2,34 +2,65 @@ package pe.idat.dsfb.dcn.library.services;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
 
-import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformationForBookRow;
 import pe.idat.dsfb.dcn.library.dtos.BookDetails;
-
+import pe.idat.dsfb.dcn.library.dtos.BookSearchResult;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
 import pe.idat.dsfb.dcn.library.dtos.BookValidation;
-import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBook;
-import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBook;
+import pe.idat.dsfb.dcn.library.dtos.CategoryInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.PublisherInformationForBookRow;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Author;
 import pe.idat.dsfb.dcn.library.models.Book;
 import pe.idat.dsfb.dcn.library.models.Category;
 import pe.idat.dsfb.dcn.library.models.Publisher;
 import pe.idat.dsfb.dcn.library.repositories.BookRepository;
+import pe.idat.dsfb.dcn.library.utils.Projections;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BookService {
 
+    private static final int CHUNK_SIZE = 500;
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookDetailsCache bookDetailsCache;
+
+    @Autowired
+    private ParallelFetcher parallelFetcher;
+
+    @Autowired
+    private BookDetailsMapper bookDetailsMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
     public Book create(BookValidation bookValidation, List<Author> authors, List<Publisher> publishers, List<Category> categories) {
 
@@ -45,7 +76,11 @@ public class BookService {
         book.setPublishers(publishers);
         book.setCategories(categories);
 
-        return bookRepository.saveAndFlush(book);
+        Book createdBook = bookRepository.saveAndFlush(book);
+        bookSearchIndex.index(createdBook);
+        bookDetailsCache.evict(createdBook.getId());
+
+        return createdBook;
     }
 
     @Transactional
@@ -62,7 +97,11 @@ public class BookService {
         existingbook.setPublishers(publishers);
         existingbook.setCategories(categories);
 
-        return bookRepository.saveAndFlush(existingbook);
+        Book updatedBook = bookRepository.saveAndFlush(existingbook);
+        bookSearchIndex.index(updatedBook);
+        bookDetailsCache.evict(updatedBook.getId());
+
+        return updatedBook;
     }
 
     public Book getByISBN(String ISBN){
@@ -94,140 +133,159 @@ public class BookService {
         }
 
         bookRepository.deleteById(id);
+        bookSearchIndex.remove(id);
+        bookDetailsCache.evict(id);
 
         return true;
     }
 
-    public BookDetails getBookDetails(Long id) {
-        Optional<Book> result = bookRepository.findById(id);
+    // Read from the primary: right after a PUT a lagging replica still has the old version, and a client sending the
+    // old If-None-Match would get a 304 and keep its stale copy
+    @Transactional
+    public ResourceVersion getVersion(Long id) {
+        Optional<ResourceVersion> result = bookRepository.findVersionById(id);
 
         if(!result.isPresent()){
             return null;
         }
 
-        Book book = result.get();
-
-        List<AuthorInformationForBook> authorsInformation = book.getAuthors().stream()
-                                    .map(author -> new AuthorInformationForBook(
-                                            author.getName(),
-                                            author.getNationality(),
-                                            author.getBirthDate(),
-                                            author.getBiography(),
-                                            author.getEmail()))
-                                    .collect(Collectors.toList());
-
-        List<PublisherInformationForBook> publishersInformation = book.getPublishers().stream()
-                                    .map(publisher -> new PublisherInformationForBook(
-                                            publisher.getName(),
-                                            publisher.getType(),
-                                            publisher.getWebsite()))
-                                    .collect(Collectors.toList());
-                                    
-        List<CategoryInformationForBook> categoriesInformation = book.getCategories().stream()
-                                    .map(category -> new CategoryInformationForBook(
-                                            category.getName(),
-                                            category.getDescription()))
-                                    .collect(Collectors.toList());
-
-        return new BookDetails(
-                book.getId(),
-                book.getTitle(),
-                book.getISBN(),
-                book.getPageCount(),
-                book.getLanguage(),
-                book.getPrice(),
-                book.getPublicationDate(),
-                book.getFormat(),
-                authorsInformation,
-                publishersInformation,
-                categoriesInformation
-        );
+        return result.get();
     }
 
+    // A cache fill reads from the primary: the evict runs after the write commits, and a lagging replica would otherwise
+    // put the old state back for as long as the entry lives
+    @Cacheable(cacheNames = BookDetailsCache.NAME, sync = true)
+    @Transactional
+    public BookDetails getBookDetails(Long id) {
+        List<Long> ids = List.of(id);
+
+        // The id is known up front, so with parallel fetch the book row is loaded alongside its links
+        List<BookDetails> result = parallelFetcher.inParallel(
+                () -> withAssociations(parallelFetcher.fetch(() -> bookRepository.findDetailsByIdIn(ids)), ids));
+
+        if(result.isEmpty()){
+            return null;
+        }
+
+        return result.get(0);
+    }
+
+    @Transactional(readOnly = true)
     public List<BookDetails> getAllBookDetails() {
-        List<Book> books = bookRepository.findAll();
-
-        return books.stream().map(book -> {
-            List<AuthorInformationForBook> authorsInformation = book.getAuthors().stream()
-                    .map(author -> new AuthorInformationForBook(
-                        author.getName(),
-                        author.getNationality(),
-                        author.getBirthDate(),
-                        author.getBiography(),
-                        author.getEmail()))
-                    .collect(Collectors.toList());
-            
-            List<PublisherInformationForBook> publishersInformation = book.getPublishers().stream()
-                    .map(publisher -> new PublisherInformationForBook(
-                        publisher.getName(),
-                        publisher.getType(),
-                        publisher.getWebsite()))
-                    .collect(Collectors.toList());
-
-            List<CategoryInformationForBook> categoriesInformation = book.getCategories().stream()
-                    .map(category -> new CategoryInformationForBook(
-                            category.getName(),
-                            category.getDescription()))
-                    .collect(Collectors.toList());
-
-            return new BookDetails(
-                    book.getId(),
-                    book.getTitle(),
-                    book.getISBN(),
-                    book.getPageCount(),
-                    book.getLanguage(),
-                    book.getPrice(),
-                    book.getPublicationDate(),
-                    book.getFormat(),
-                    authorsInformation,
-                    publishersInformation,
-                    categoriesInformation
-            );
-        }).collect(Collectors.toList());
-    }
-
-    public Page<BookDetails> getAllBookDetailsWithFilters(String language, String format, int page, int size) {
+        return bookDetailsMapper.attach(bookRepository.findAllDetails(), bookRepository.findAllAuthorRows(),
+                bookRepository.findAllPublisherRows(), bookRepository.findAllCategoryRows());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BookDetails> getAllBookDetailsWithFilters(String language, String format, String title, SearchMode mode, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
+        Page<BookDetails> booksPage;
+
+        if (mode == SearchMode.FULLTEXT) {
+            Page<Long> ids = bookRepository.searchIdsByTitle(title, pageable);
+            List<BookDetails> books = ids.isEmpty() ? List.of() : bookRepository.findDetailsByIdIn(ids.getContent());
+            booksPage = new PageImpl<>(Projections.inOrder(ids.getContent(), books, BookDetails::getId), pageable, ids.getTotalElements());
+        } else {
+            booksPage = bookRepository.findDetailsWithFilters(mode.toPattern(language), mode.toPattern(format), pageable);
+        }
+
+        withAssociations(booksPage.getContent());
 
-        Page<Book> booksPage = bookRepository.findAllWithFilters(language, format, pageable);
-
-        return booksPage.map(book -> {
-            List<AuthorInformationForBook> authorsInformation = book.getAuthors().stream()
-                    .map(author -> new AuthorInformationForBook(
-                            author.getName(),
-                            author.getNationality(),
-                            author.getBirthDate(),
-                            author.getBiography(),
-                            author.getEmail()))
-                    .collect(Collectors.toList());
-
-            List<PublisherInformationForBook> publishersInformation = book.getPublishers().stream()
-                    .map(publisher -> new PublisherInformationForBook(
-                        publisher.getName(),
-                        publisher.getType(),
-                        publisher.getWebsite()))
-                    .collect(Collectors.toList());
-
-            List<CategoryInformationForBook> categoriesInformation = book.getCategories().stream()
-                    .map(category -> new CategoryInformationForBook(
-                            category.getName(),
-                            category.getDescription()))
-                    .collect(Collectors.toList());
-
-            return new BookDetails(
-                book.getId(),
-                book.getTitle(),
-                book.getISBN(),
-                book.getPageCount(),
-                book.getLanguage(),
-                book.getPrice(),
-                book.getPublicationDate(),
-                book.getFormat(),
-                authorsInformation,
-                publishersInformation,
-                categoriesInformation
-            );
-        });
+        return booksPage;
     }
-}
 
+    @Transactional(readOnly = true)
+    public CursorPage<BookDetails> getAllBookDetailsWithFiltersAfter(String language, String format, String title, SearchMode mode, long after, int size) {
+        size = CursorPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<BookDetails> books;
+
+        if (mode == SearchMode.FULLTEXT) {
+            List<Long> ids = bookRepository.findIdsByTitleAfter(title, after, limit);
+            books = ids.isEmpty() ? List.of() : bookRepository.findDetailsByIdIn(ids);
+        } else {
+            books = bookRepository.findDetailsWithFiltersAfter(mode.toPattern(language), mode.toPattern(format), after, limit);
+        }
+
+        boolean hasNext = books.size() > size;
+
+        if (hasNext) {
+            books = books.subList(0, size);
+        }
+
+        String nextCursor = hasNext ? CursorPage.encodeCursor(books.get(books.size() - 1).getId()) : null;
+
+        return new CursorPage<>(withAssociations(books), nextCursor);
+    }
+
+    public List<BookSearchResult> search(String query, int limit) {
+        return bookSearchIndex.search(query, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        bookSearchIndex.clear();
+        forEachBook(bookSearchIndex::index);
+    }
+
+    // Same walk as forEachBook, but over projections, so nothing is added to the persistence context
+    @Transactional(readOnly = true)
+    public void forEachBookDetails(Consumer<BookDetails> consumer) {
+        Pageable chunk = PageRequest.of(0, CHUNK_SIZE);
+        List<BookDetails> books = bookRepository.findDetailsAfter(0L, chunk);
+
+        while (!books.isEmpty()) {
+            withAssociations(books).forEach(consumer);
+
+            books = bookRepository.findDetailsAfter(books.get(books.size() - 1).getId(), chunk);
+        }
+    }
+
+    // Walks the catalogue in id order, one chunk at a time, detaching every chunk once it has been consumed.
+    @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> consumer) {
+        Pageable chunk = PageRequest.of(0, CHUNK_SIZE);
+        List<Long> ids = bookRepository.findIdsAfter(0L, chunk);
+
+        while (!ids.isEmpty()) {
+            findWithAssociations(ids).forEach(consumer);
+            entityManager.clear();
+
+            ids = bookRepository.findIdsAfter(ids.get(ids.size() - 1), chunk);
+        }
+    }
+
+    private List<Book> findWithAssociations(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Book> books = bookRepository.findWithAuthorsByIdIn(ids);
+        bookRepository.findWithPublishersByIdIn(ids);
+        bookRepository.findWithCategoriesByIdIn(ids);
+
+        return books;
+    }
+
+    private List<BookDetails> withAssociations(List<BookDetails> books) {
+        if (books.isEmpty()) {
+            return books;
+        }
+
+        List<Long> ids = books.stream().map(BookDetails::getId).toList();
+
+        return parallelFetcher.inParallel(() -> withAssociations(CompletableFuture.completedFuture(books), ids));
+    }
+
+    // The three link queries are independent, with parallel fetch on they run concurrently and the caller waits for the slowest
+    private List<BookDetails> withAssociations(CompletableFuture<List<BookDetails>> books, List<Long> ids) {
+        CompletableFuture<List<AuthorInformationForBookRow>> authors = parallelFetcher.fetch(() -> bookRepository.findAuthorRowsByIdIn(ids));
+        CompletableFuture<List<PublisherInformationForBookRow>> publishers = parallelFetcher.fetch(() -> bookRepository.findPublisherRowsByIdIn(ids));
+        CompletableFuture<List<CategoryInformationForBookRow>> categories = parallelFetcher.fetch(() -> bookRepository.findCategoryRowsByIdIn(ids));
+
+        return bookDetailsMapper.attach(parallelFetcher.join(books), parallelFetcher.join(authors),
+                parallelFetcher.join(publishers), parallelFetcher.join(categories));
+    }
+}
@@ -2,27 +2,50 @@ package pe.idat.dsfb.dcn.library.services;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import pe.idat.dsfb.dcn.library.dtos.BookInformation;
+import io.micrometer.core.annotation.Timed;
+
+import pe.idat.dsfb.dcn.library.dtos.BookInformationRow;
 import pe.idat.dsfb.dcn.library.dtos.CategoryInformation;
 import pe.idat.dsfb.dcn.library.dtos.CategoryValidation;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Category;
 import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+import pe.idat.dsfb.dcn.library.utils.Projections;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class CategoryService {
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookDetailsCache bookDetailsCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NameDictionary<Category> nameDictionary = new NameDictionary<>(Category.class);
+
     @Transactional
     public Category create(CategoryValidation categoryValidation) {
 
@@ -30,7 +53,10 @@ public class CategoryService {
         category.setName(categoryValidation.getName());
         category.setDescription(categoryValidation.getDescription());
 
-        return categoryRepository.saveAndFlush(category);
+        Category createdCategory = categoryRepository.saveAndFlush(category);
+        nameDictionary.put(createdCategory.getId(), createdCategory.getName());
+
+        return createdCategory;
     }
 
     @Transactional
@@ -45,7 +71,12 @@ public class CategoryService {
         category.setName(categoryValidation.getName());
         category.setDescription(categoryValidation.getDescription());
 
-        return categoryRepository.saveAndFlush(category);
+        Category updatedCategory = categoryRepository.saveAndFlush(category);
+        nameDictionary.put(updatedCategory.getId(), updatedCategory.getName());
+        bookSearchIndex.updateCategory(updatedCategory);
+        bookDetailsCache.evict(updatedCategory.getBooks());
+
+        return updatedCategory;
     }
 
     @Transactional
@@ -56,82 +87,97 @@ public class CategoryService {
             return false;
         }
 
+        bookDetailsCache.evict(result.get().getBooks());
         categoryRepository.deleteById(id);
+        nameDictionary.remove(id);
+        bookSearchIndex.removeCategory(id);
 
         return true;
     }
 
-    public CategoryInformation getCategoryWithBooks(Long id) {
-        Optional<Category> result = categoryRepository.findById(id);
+    // The ETag version and the body behind it come from the primary, see BookService.getVersion
+    @Transactional
+    public ResourceVersion getVersion(Long id) {
+        Optional<ResourceVersion> result = categoryRepository.findVersionById(id);
 
         if(!result.isPresent()){
             return null;
         }
 
-        Category category = result.get();
-
-        List<BookInformation> booksInformation = category.getBooks().stream()
-                                    .map(book -> new BookInformation(
-                                            book.getTitle(),
-                                            book.getPageCount(),
-                                            book.getLanguage(),
-                                            book.getPublicationDate()))
-                                    .collect(Collectors.toList());
-
-        return new CategoryInformation(
-                category.getId(),
-                category.getName(),
-                category.getDescription(),
-                booksInformation
-        );
+        return result.get();
+    }
+
+    @Transactional
+    public CategoryInformation getCategoryWithBooks(Long id) {
+        List<CategoryInformation> result = withBooks(categoryRepository.findInformationByIdIn(List.of(id)));
+
+        if(result.isEmpty()){
+            return null;
+        }
+
+        return result.get(0);
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryInformation> getAllCategoriesWithBooks() {
-        List<Category> categories = categoryRepository.findAll();
-
-        return categories.stream().map(category -> {
-            List<BookInformation> booksInformation = category.getBooks().stream()
-                    .map(book -> new BookInformation(
-                            book.getTitle(),
-                            book.getPageCount(),
-                            book.getLanguage(),
-                            book.getPublicationDate()))
-                    .collect(Collectors.toList());
-
-            return new CategoryInformation(
-                category.getId(),
-                category.getName(),
-                category.getDescription(),
-                booksInformation
-            );
-        }).collect(Collectors.toList());
+        List<CategoryInformation> categories = categoryRepository.findAllInformation();
+
+        return Projections.attach(categories, CategoryInformation::getID, categoryRepository.findAllBookRows(),
+                BookInformationRow::getOwnerId, (category, row) -> category.getBooks().add(row.getBook()));
     }
 
-    public Page<CategoryInformation> getAllCategoriesWithFilters(String description, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<CategoryInformation> getAllCategoriesWithFilters(String description, SearchMode mode, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
+        Page<CategoryInformation> categoriesPage;
+
+        if (mode == SearchMode.FULLTEXT) {
+            Page<Long> ids = categoryRepository.searchIdsByDescription(description, pageable);
+            List<CategoryInformation> categories = ids.isEmpty() ? List.of() : categoryRepository.findInformationByIdIn(ids.getContent());
+            categoriesPage = new PageImpl<>(Projections.inOrder(ids.getContent(), categories, CategoryInformation::getID), pageable, ids.getTotalElements());
+        } else {
+            categoriesPage = categoryRepository.findInformationWithFilters(mode.toPattern(description), pageable);
+        }
 
-        Page<Category> categoriesPage = categoryRepository.findAllWithFilters(description, pageable);
-
-        return categoriesPage.map(category -> {
-            List<BookInformation> booksInformation = category.getBooks().stream()
-                    .map(book -> new BookInformation(
-                            book.getTitle(),
-                            book.getPageCount(),
-                            book.getLanguage(),
-                            book.getPublicationDate()))
-                    .collect(Collectors.toList());
-
-            return new CategoryInformation(
-                category.getId(),
-                category.getName(),
-                category.getDescription(),
-                booksInformation
-            );
-        });
+        withBooks(categoriesPage.getContent());
+
+        return categoriesPage;
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<CategoryInformation> getAllCategoriesWithFiltersAfter(String description, SearchMode mode, long after, int size) {
+        size = CursorPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<CategoryInformation> categories;
+
+        if (mode == SearchMode.FULLTEXT) {
+            List<Long> ids = categoryRepository.findIdsByDescriptionAfter(description, after, limit);
+            categories = ids.isEmpty() ? List.of() : categoryRepository.findInformationByIdIn(ids);
+        } else {
+            categories = categoryRepository.findInformationWithFiltersAfter(mode.toPattern(description), after, limit);
+        }
+
+        boolean hasNext = categories.size() > size;
+
+        if (hasNext) {
+            categories = categories.subList(0, size);
+        }
+
+        String nextCursor = hasNext ? CursorPage.encodeCursor(categories.get(categories.size() - 1).getID()) : null;
+
+        return new CursorPage<>(withBooks(categories), nextCursor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadNameDictionary() {
+        nameDictionary.load(categoryRepository.findAllNames());
+    }
+
+    @Transactional
     public List<Category> findByNames(List<String> names) {
-        return categoryRepository.findByNameIn(names);
+        return nameDictionary.findByNames(names, entityManager, categoryRepository::findByNameIn);
     }
 
     public Category getByName(String name){
@@ -143,7 +189,15 @@ public class CategoryService {
 
         return result.get();
     }
-}
 
+    private List<CategoryInformation> withBooks(List<CategoryInformation> categories) {
+        if (categories.isEmpty()) {
+            return categories;
+        }
 
+        List<Long> ids = categories.stream().map(CategoryInformation::getID).toList();
 
+        return Projections.attach(categories, CategoryInformation::getID, categoryRepository.findBookRowsByIdIn(ids),
+                BookInformationRow::getOwnerId, (category, row) -> category.getBooks().add(row.getBook()));
+    }
+}
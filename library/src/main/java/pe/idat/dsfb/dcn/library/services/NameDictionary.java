@@ -0,0 +1,143 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import pe.idat.dsfb.dcn.library.dtos.NameReference;
+
+// Name to id lookup for one reference type. Keys drop accents and case, like the MySQL default collation
+// (utf8mb4_0900_ai_ci) the repositories' findByNameIn relies on, so "Jose Maria Arguedas" finds "José María Arguedas".
+// Names are not unique, so a name maps to every id that carries it. Changes are applied once the surrounding
+// transaction commits.
+public class NameDictionary<T> {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final Class<T> type;
+    private final Map<String, List<Long>> ids = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public NameDictionary(Class<T> type) {
+        this.type = type;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void load(List<NameReference> references) {
+        ids.clear();
+        names.clear();
+        references.forEach(reference -> apply(reference.getId(), reference.getName()));
+        loaded = true;
+    }
+
+    public List<Long> ids(List<String> names) {
+        Set<Long> result = new LinkedHashSet<>();
+
+        names.stream().filter(Objects::nonNull).map(NameDictionary::key).distinct()
+                .forEach(name -> result.addAll(ids.getOrDefault(name, List.of())));
+
+        return new ArrayList<>(result);
+    }
+
+    // Resolves the names through the dictionary and loads the entities by id, which the persistence context and the
+    // second-level cache can answer without a query. Falls back to the name query until the dictionary is loaded, and
+    // for names it does not know: rows added by another instance, or equal under a collation rule the keys miss.
+    public List<T> findByNames(List<String> names, EntityManager entityManager, Function<List<String>, List<T>> findByNameIn) {
+        if (!loaded) {
+            return findByNameIn.apply(names);
+        }
+
+        List<Long> ids = ids(names);
+        List<String> missing = names.stream().filter(Objects::nonNull).filter(name -> !this.ids.containsKey(key(name))).toList();
+
+        // Entities of one persistence context are unique by identity, the entity equals would walk their collections
+        Set<T> entities = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<T> result = new ArrayList<>();
+
+        if (!ids.isEmpty()) {
+            entityManager.unwrap(Session.class).byMultipleIds(type).multiLoad(ids).stream()
+                    .filter(Objects::nonNull)
+                    .filter(entities::add)
+                    .forEach(result::add);
+        }
+
+        if (!missing.isEmpty()) {
+            findByNameIn.apply(missing).stream().filter(entities::add).forEach(result::add);
+        }
+
+        return result;
+    }
+
+    public void put(Long id, String name) {
+        afterCommit(() -> apply(id, name));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> {
+            String name = names.remove(id);
+
+            if (name != null) {
+                unlink(name, id);
+            }
+        });
+    }
+
+    private void apply(Long id, String name) {
+        String previous = names.put(id, key(name));
+
+        if (previous != null) {
+            unlink(previous, id);
+        }
+
+        // The lists are replaced, never changed in place, so ids() can read them without locking
+        ids.merge(key(name), List.of(id), (current, added) -> current.contains(id)
+                ? current
+                : Stream.concat(current.stream(), added.stream()).toList());
+    }
+
+    private void unlink(String name, Long id) {
+        ids.computeIfPresent(name, (key, current) -> {
+            List<Long> remaining = current.stream().filter(candidate -> !candidate.equals(id)).toList();
+            return remaining.isEmpty() ? null : remaining;
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static String key(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,146 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import pe.idat.dsfb.dcn.library.utils.RequestStatistics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Runs independent read queries concurrently when library.books.parallel-fetch is on, otherwise on the calling thread.
+// Each task gets its own transaction with the caller's read-only flag, so it routes to the same database the caller's
+// would. Every task holds a connection of its own while the caller keeps one too: only pool size - threads callers fan
+// out at once, so the tasks always find a connection, and the others run their queries inline on their own connection.
+@Component
+public class ParallelFetcher {
+
+    private static final ThreadLocal<Boolean> FANNING_OUT = new ThreadLocal<>();
+
+    @Value("${library.books.parallel-fetch:false}")
+    private boolean enabled;
+
+    @Value("${library.books.parallel-fetch-threads:6}")
+    private int threads;
+
+    @Value("${library.books.parallel-fetch-queue:64}")
+    private int queue;
+
+    @Value("${library.books.parallel-fetch-timeout:10s}")
+    private Duration timeout;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+    private ThreadPoolExecutor executor;
+    private Semaphore callers;
+
+    @PostConstruct
+    public void start() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+
+        if (!enabled) {
+            return;
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+
+        // A full queue runs the task on the caller, inside the caller's own transaction
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue),
+                task -> Thread.ofPlatform().name("parallel-fetch-" + sequence.incrementAndGet()).daemon().unstarted(task),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        callers = new Semaphore(Math.max(1, poolSize - threads));
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    // The fetch calls made by work run concurrently when a fan-out permit is free, otherwise on the calling thread
+    public <T> T inParallel(Supplier<T> work) {
+        if (executor == null || FANNING_OUT.get() != null || !callers.tryAcquire()) {
+            return work.get();
+        }
+
+        FANNING_OUT.set(Boolean.TRUE);
+
+        try {
+            return work.get();
+        } finally {
+            FANNING_OUT.remove();
+            callers.release();
+        }
+    }
+
+    public <T> CompletableFuture<T> fetch(Supplier<T> query) {
+        if (executor == null || FANNING_OUT.get() == null) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+
+        // The task's statements count towards the request that asked for them
+        RequestStatistics statistics = RequestStatistics.current();
+        TransactionTemplate transaction = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? readOnlyTransaction
+                : readWriteTransaction;
+
+        return CompletableFuture.supplyAsync(() -> RequestStatistics.callWith(statistics,
+                () -> transaction.execute(status -> query.get())), executor);
+    }
+
+    // Waits at most library.books.parallel-fetch-timeout, a failed task rethrows its own exception on the caller
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            if (cause instanceof Error error) {
+                throw error;
+            }
+
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new QueryTimeoutException("Parallel fetch did not complete within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new QueryTimeoutException("Interrupted while waiting for a parallel fetch", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
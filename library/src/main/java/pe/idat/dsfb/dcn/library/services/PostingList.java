@@ -0,0 +1,250 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Book ids in ascending order with their weighted term frequency, stored as variable-length deltas in blocks of up to
+// 2 * BLOCK_SIZE entries. Appending a higher id is the common case and only writes to the last block, an out-of-order add
+// or a remove re-encodes the one block that holds the id.
+final class PostingList {
+
+    static final int BLOCK_SIZE = 128;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    // An id already in the list gets the new weight
+    void add(long id, int weight) {
+        Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+
+        if (last != null && id > last.lastId && last.count < BLOCK_SIZE) {
+            last.append(id, weight);
+            size++;
+            return;
+        }
+
+        if (last == null || id > last.lastId) {
+            Block block = new Block();
+            block.append(id, weight);
+            blocks.add(block);
+            size++;
+            return;
+        }
+
+        int index = Math.max(0, blockFor(id));
+        Block block = blocks.get(index);
+
+        if (block.insert(id, weight)) {
+            size++;
+        }
+
+        if (block.count > 2 * BLOCK_SIZE) {
+            blocks.add(index + 1, block.split());
+        }
+    }
+
+    void remove(long id) {
+        int index = blockFor(id);
+
+        if (index < 0 || !blocks.get(index).delete(id)) {
+            return;
+        }
+
+        size--;
+
+        if (blocks.get(index).count == 0) {
+            blocks.remove(index);
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // The last block whose first id is not above id, -1 when id comes before every block
+    private int blockFor(long id) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        int found = -1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (blocks.get(middle).firstId <= id) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return found;
+    }
+
+    private static final class Block {
+        private byte[] data = new byte[16];
+        private int length;
+        private int count;
+        private long firstId;
+        private long lastId;
+
+        void append(long id, int weight) {
+            writeVarLong(count == 0 ? id : id - lastId);
+            writeVarLong(weight);
+
+            if (count == 0) {
+                firstId = id;
+            }
+
+            lastId = id;
+            count++;
+        }
+
+        // Returns false when the id was already there and only its weight changed
+        boolean insert(long id, int weight) {
+            long[] ids = new long[count + 1];
+            int[] weights = new int[count + 1];
+            decode(ids, weights);
+
+            int position = Arrays.binarySearch(ids, 0, count, id);
+
+            if (position >= 0) {
+                weights[position] = weight;
+                encode(ids, weights, 0, count);
+                return false;
+            }
+
+            position = -position - 1;
+            System.arraycopy(ids, position, ids, position + 1, count - position);
+            System.arraycopy(weights, position, weights, position + 1, count - position);
+            ids[position] = id;
+            weights[position] = weight;
+            encode(ids, weights, 0, count + 1);
+
+            return true;
+        }
+
+        boolean delete(long id) {
+            if (id > lastId) {
+                return false;
+            }
+
+            long[] ids = new long[count];
+            int[] weights = new int[count];
+            decode(ids, weights);
+
+            int position = Arrays.binarySearch(ids, 0, count, id);
+
+            if (position < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, count - position - 1);
+            System.arraycopy(weights, position + 1, weights, position, count - position - 1);
+            encode(ids, weights, 0, count - 1);
+
+            return true;
+        }
+
+        // Keeps the lower half and returns the upper one as a new block
+        Block split() {
+            long[] ids = new long[count];
+            int[] weights = new int[count];
+            decode(ids, weights);
+
+            int half = count / 2;
+            Block upper = new Block();
+            upper.encode(ids, weights, half, count);
+            encode(ids, weights, 0, half);
+
+            return upper;
+        }
+
+        private void decode(long[] ids, int[] weights) {
+            int[] position = { 0 };
+            long id = 0;
+
+            for (int i = 0; i < count; i++) {
+                id += readVarLong(data, position);
+                ids[i] = id;
+                weights[i] = (int) readVarLong(data, position);
+            }
+        }
+
+        private void encode(long[] ids, int[] weights, int from, int to) {
+            length = 0;
+            count = 0;
+
+            for (int i = from; i < to; i++) {
+                append(ids[i], weights[i]);
+            }
+        }
+
+        private void writeVarLong(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            data[length++] = (byte) value;
+        }
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+
+        do {
+            current = data[position[0]++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        return value;
+    }
+
+    final class Cursor {
+        private int block = -1;
+        private final int[] position = { 0 };
+        private int remaining;
+        private long id;
+        private int weight;
+
+        boolean next() {
+            while (remaining == 0) {
+                if (++block >= blocks.size()) {
+                    return false;
+                }
+
+                position[0] = 0;
+                remaining = blocks.get(block).count;
+                id = 0;
+            }
+
+            byte[] data = blocks.get(block).data;
+            id += readVarLong(data, position);
+            weight = (int) readVarLong(data, position);
+            remaining--;
+
+            return true;
+        }
+
+        long id() {
+            return id;
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+}
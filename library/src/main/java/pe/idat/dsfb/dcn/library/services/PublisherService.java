@@ -2,28 +2,49 @@ package pe.idat.dsfb.dcn.library.services;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import pe.idat.dsfb.dcn.library.dtos.BookInformation;
+import io.micrometer.core.annotation.Timed;
+
+import pe.idat.dsfb.dcn.library.dtos.BookInformationRow;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
 import pe.idat.dsfb.dcn.library.dtos.PublisherInformation;
 import pe.idat.dsfb.dcn.library.dtos.PublisherValidation;
-
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
 import pe.idat.dsfb.dcn.library.models.Publisher;
 import pe.idat.dsfb.dcn.library.repositories.PublisherRepository;
+import pe.idat.dsfb.dcn.library.utils.Projections;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class PublisherService {
 
     @Autowired
     private PublisherRepository publisherRepository;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookDetailsCache bookDetailsCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NameDictionary<Publisher> nameDictionary = new NameDictionary<>(Publisher.class);
+
     @Transactional
     public Publisher create(PublisherValidation publisherValidation) {
 
@@ -35,7 +56,10 @@ public class PublisherService {
         publisher.setCountry(publisherValidation.getCountry());
         publisher.setWebsite(publisherValidation.getWebsite());
 
-        return publisherRepository.saveAndFlush(publisher);
+        Publisher createdPublisher = publisherRepository.saveAndFlush(publisher);
+        nameDictionary.put(createdPublisher.getId(), createdPublisher.getName());
+
+        return createdPublisher;
     }
 
     @Transactional
@@ -54,7 +78,12 @@ public class PublisherService {
         publisher.setCountry(publisherValidation.getCountry());
         publisher.setWebsite(publisherValidation.getWebsite());
 
-        return publisherRepository.saveAndFlush(publisher);
+        Publisher updatedPublisher = publisherRepository.saveAndFlush(publisher);
+        nameDictionary.put(updatedPublisher.getId(), updatedPublisher.getName());
+        bookSearchIndex.updatePublisher(updatedPublisher);
+        bookDetailsCache.evict(updatedPublisher.getBooks());
+
+        return updatedPublisher;
     }
 
     @Transactional
@@ -65,94 +94,79 @@ public class PublisherService {
             return false;
         }
 
+        bookDetailsCache.evict(result.get().getBooks());
         publisherRepository.deleteById(id);
+        nameDictionary.remove(id);
+        bookSearchIndex.removePublisher(id);
 
         return true;
     }
 
-    public PublisherInformation getPublisherWithBooks(Long id) {
-        Optional<Publisher> result = publisherRepository.findById(id);
+    // The ETag version and the body behind it come from the primary, see BookService.getVersion
+    @Transactional
+    public ResourceVersion getVersion(Long id) {
+        Optional<ResourceVersion> result = publisherRepository.findVersionById(id);
 
         if(!result.isPresent()){
             return null;
         }
 
-        Publisher publisher = result.get();
-
-        List<BookInformation> booksInformation = publisher.getBooks().stream()
-                                    .map(book -> new BookInformation(
-                                            book.getTitle(),
-                                            book.getPageCount(),
-                                            book.getLanguage(),
-                                            book.getPublicationDate()))
-                                    .collect(Collectors.toList());
-
-        return new PublisherInformation(
-                publisher.getId(),
-                publisher.getName(),
-                publisher.getContactNumber(),
-                publisher.getEmail(),
-                publisher.getType(),
-                publisher.getCountry(),
-                publisher.getWebsite(),
-                booksInformation
-        );
+        return result.get();
+    }
+
+    @Transactional
+    public PublisherInformation getPublisherWithBooks(Long id) {
+        List<PublisherInformation> result = withBooks(publisherRepository.findInformationByIdIn(List.of(id)));
+
+        if(result.isEmpty()){
+            return null;
+        }
+
+        return result.get(0);
     }
 
+    @Transactional(readOnly = true)
     public List<PublisherInformation> getAllPublishersWithBooks() {
-        List<Publisher> publishers = publisherRepository.findAll();
-
-        return publishers.stream().map(publisher -> {
-            List<BookInformation> booksInformation = publisher.getBooks().stream()
-                    .map(book -> new BookInformation(
-                            book.getTitle(),
-                            book.getPageCount(),
-                            book.getLanguage(),
-                            book.getPublicationDate()))
-                    .collect(Collectors.toList());
-
-            return new PublisherInformation(
-                    publisher.getId(),
-                    publisher.getName(),
-                    publisher.getContactNumber(),
-                    publisher.getEmail(),
-                    publisher.getType(),
-                    publisher.getCountry(),
-                    publisher.getWebsite(),
-                    booksInformation
-            );
-        }).collect(Collectors.toList());
+        List<PublisherInformation> publishers = publisherRepository.findAllInformation();
+
+        return Projections.attach(publishers, PublisherInformation::getID, publisherRepository.findAllBookRows(),
+                BookInformationRow::getOwnerId, (publisher, row) -> publisher.getBooks().add(row.getBook()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadNameDictionary() {
+        nameDictionary.load(publisherRepository.findAllNames());
     }
 
+    @Transactional
     public List<Publisher> findByNames(List<String> names) {
-        return publisherRepository.findByNameIn(names);
+        return nameDictionary.findByNames(names, entityManager, publisherRepository::findByNameIn);
     }
 
-    public Page<PublisherInformation> getAllPublishersWithFilters(String country, String type, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<PublisherInformation> getAllPublishersWithFilters(String country, String type, SearchMode mode, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
 
-        Page<Publisher> publishersPage = publisherRepository.findAllWithFilters(country, type, pageable);
-
-        return publishersPage.map(publisher -> {
-            List<BookInformation> booksInformation = publisher.getBooks().stream()
-                    .map(book -> new BookInformation(
-                            book.getTitle(),
-                            book.getPageCount(),
-                            book.getLanguage(),
-                            book.getPublicationDate()))
-                    .collect(Collectors.toList());
-
-            return new PublisherInformation(
-                    publisher.getId(),
-                    publisher.getName(),
-                    publisher.getContactNumber(),
-                    publisher.getEmail(),
-                    publisher.getType(),
-                    publisher.getCountry(),
-                    publisher.getWebsite(),
-                    booksInformation
-            );
-        });
+        Page<PublisherInformation> publishersPage = publisherRepository.findInformationWithFilters(mode.toPattern(country), mode.toPattern(type), pageable);
+        withBooks(publishersPage.getContent());
+
+        return publishersPage;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PublisherInformation> getAllPublishersWithFiltersAfter(String country, String type, SearchMode mode, long after, int size) {
+        size = CursorPage.clampSize(size);
+        List<PublisherInformation> publishers = publisherRepository.findInformationWithFiltersAfter(mode.toPattern(country), mode.toPattern(type), after, PageRequest.of(0, size + 1));
+        boolean hasNext = publishers.size() > size;
+
+        if (hasNext) {
+            publishers = publishers.subList(0, size);
+        }
+
+        String nextCursor = hasNext ? CursorPage.encodeCursor(publishers.get(publishers.size() - 1).getID()) : null;
+
+        return new CursorPage<>(withBooks(publishers), nextCursor);
     }
 
     public Publisher getByName(String name){
@@ -164,5 +178,15 @@ public class PublisherService {
 
         return result.get();
     }
-}
 
+    private List<PublisherInformation> withBooks(List<PublisherInformation> publishers) {
+        if (publishers.isEmpty()) {
+            return publishers;
+        }
+
+        List<Long> ids = publishers.stream().map(PublisherInformation::getID).toList();
+
+        return Projections.attach(publishers, PublisherInformation::getID, publisherRepository.findBookRowsByIdIn(ids),
+                BookInformationRow::getOwnerId, (publisher, row) -> publisher.getBooks().add(row.getBook()));
+    }
+}
@@ -0,0 +1,109 @@
+package pe.idat.dsfb.dcn.library.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads RFC 4180 records one at a time, quoted fields may contain separators, doubled quotes and line breaks.
+// A field is capped at maxFieldLength characters, so an unterminated quote cannot buffer the rest of the input: the
+// record is dropped with a FieldTooLongException and reading resumes at the next line break.
+public class CsvReader {
+
+    public static final int DEFAULT_MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private int next = -2;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_FIELD_LENGTH);
+    }
+
+    public CsvReader(Reader reader, int maxFieldLength) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    public List<String> readRecord() throws IOException {
+        int c = read();
+
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (field.length() > maxFieldLength) {
+                skipLine(c);
+                throw new FieldTooLongException("Field longer than " + maxFieldLength + " characters, the record was skipped");
+            }
+
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+
+            c = read();
+        }
+    }
+
+    private void skipLine(int c) throws IOException {
+        while (c != -1 && c != '\n') {
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (next != -2) {
+            int c = next;
+            next = -2;
+            return c;
+        }
+
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+
+        return next;
+    }
+
+    public static class FieldTooLongException extends IOException {
+        public FieldTooLongException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package pe.idat.dsfb.dcn.library.utils;
+
+import pe.idat.dsfb.dcn.library.dtos.ResourceVersion;
+
+public class ETagUtils {
+    public static String of(ResourceVersion version) {
+        return "\"" + version.getVersion() + "-" + version.getLinkedCount() + "-" + version.getLinkedIds() + "-"
+                + version.getLinkedVersions() + "\"";
+    }
+
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
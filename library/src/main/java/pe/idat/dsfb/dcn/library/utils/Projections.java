@@ -0,0 +1,34 @@
+package pe.idat.dsfb.dcn.library.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Helpers for read paths that load owner rows and their linked rows with separate projection queries
+public class Projections {
+
+    public static <T, R> List<T> attach(List<T> owners, Function<T, Long> id, List<R> rows, Function<R, Long> ownerId, BiConsumer<T, R> add) {
+        Map<Long, T> byId = new HashMap<>();
+        owners.forEach(owner -> byId.put(id.apply(owner), owner));
+
+        for (R row : rows) {
+            T owner = byId.get(ownerId.apply(row));
+
+            if (owner != null) {
+                add.accept(owner, row);
+            }
+        }
+
+        return owners;
+    }
+
+    // Queries by id list return rows in id order, this restores the order the ids were ranked in
+    public static <T> List<T> inOrder(List<Long> ids, List<T> items, Function<T, Long> id) {
+        Map<Long, T> byId = new HashMap<>();
+        items.forEach(item -> byId.put(id.apply(item), item));
+
+        return ids.stream().map(byId::get).filter(item -> item != null).toList();
+    }
+}
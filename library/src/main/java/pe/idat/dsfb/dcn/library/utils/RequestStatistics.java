@@ -0,0 +1,100 @@
+package pe.idat.dsfb.dcn.library.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// What the current HTTP request has done against the database. Bound to the request thread by RequestMetricsInterceptor,
+// and to the ParallelFetcher threads for the tasks they run on its behalf, so the counters are atomic.
+public class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final int statementLimit;
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger queryRows = new AtomicInteger();
+    private final AtomicInteger entitiesLoaded = new AtomicInteger();
+
+    private RequestStatistics(int statementLimit) {
+        this.statementLimit = statementLimit;
+    }
+
+    public static RequestStatistics start() {
+        return start(0);
+    }
+
+    // With a positive limit, the statement past it fails instead of being prepared
+    public static RequestStatistics start(int statementLimit) {
+        RequestStatistics statistics = new RequestStatistics(statementLimit);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callWith(RequestStatistics statistics, Supplier<T> task) {
+        if (statistics == null) {
+            return task.get();
+        }
+
+        RequestStatistics previous = CURRENT.get();
+        CURRENT.set(statistics);
+
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void statementPrepared() {
+        RequestStatistics statistics = CURRENT.get();
+
+        if (statistics == null) {
+            return;
+        }
+
+        int statements = statistics.statements.incrementAndGet();
+
+        if (statistics.statementLimit > 0 && statements > statistics.statementLimit) {
+            throw new IllegalStateException("The request exceeded its budget of " + statistics.statementLimit + " SQL statements");
+        }
+    }
+
+    public static void queryExecuted(int rows) {
+        RequestStatistics statistics = CURRENT.get();
+
+        if (statistics != null && rows > 0) {
+            statistics.queryRows.addAndGet(rows);
+        }
+    }
+
+    public static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+
+        if (statistics != null) {
+            statistics.entitiesLoaded.incrementAndGet();
+        }
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public int getQueryRows() {
+        return queryRows.get();
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded.get();
+    }
+}
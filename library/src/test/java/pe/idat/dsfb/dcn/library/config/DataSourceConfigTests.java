@@ -0,0 +1,104 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import pe.idat.dsfb.dcn.library.services.ParallelFetcher;
+
+class DataSourceConfigTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+			.withUserConfiguration(DataSourceConfig.class)
+			.withPropertyValues(
+					"spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+					"library.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		contextRunner.run(context -> {
+			mark(context.getBean("primaryDataSource", HikariDataSource.class), "primary");
+			mark(context.getBean("replicaDataSource", HikariDataSource.class), "replica");
+
+			DataSource dataSource = context.getBean(DataSource.class);
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+			String readWrite = transactionTemplate.execute(status -> instance(jdbcTemplate));
+			assertThat(readWrite).isEqualTo("primary");
+
+			transactionTemplate.setReadOnly(true);
+			String readOnly = transactionTemplate.execute(status -> instance(jdbcTemplate));
+			assertThat(readOnly).isEqualTo("replica");
+		});
+	}
+
+	@Test
+	void parallelFetchTasksFollowTheCallersReadOnlyFlag() {
+		contextRunner
+				.withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+				.withUserConfiguration(TransactionManagerConfig.class, ParallelFetcher.class)
+				.withPropertyValues("library.books.parallel-fetch=true")
+				.run(context -> {
+					mark(context.getBean("primaryDataSource", HikariDataSource.class), "primary");
+					mark(context.getBean("replicaDataSource", HikariDataSource.class), "replica");
+
+					JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+					TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+					ParallelFetcher parallelFetcher = context.getBean(ParallelFetcher.class);
+
+					String readWrite = transactionTemplate.execute(status -> fetchInParallel(parallelFetcher, jdbcTemplate));
+					assertThat(readWrite).isEqualTo("primary");
+
+					transactionTemplate.setReadOnly(true);
+					String readOnly = transactionTemplate.execute(status -> fetchInParallel(parallelFetcher, jdbcTemplate));
+					assertThat(readOnly).isEqualTo("replica");
+				});
+	}
+
+	@Test
+	void singleDataSourceWithoutReplicaUrl() {
+		new ApplicationContextRunner()
+				.withUserConfiguration(DataSourceConfig.class)
+				.run(context -> assertThat(context).doesNotHaveBean(DataSourceConfig.class));
+	}
+
+	private static void mark(DataSource dataSource, String name) {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS instance (name VARCHAR(20))");
+		jdbcTemplate.update("DELETE FROM instance");
+		jdbcTemplate.update("INSERT INTO instance VALUES (?)", name);
+	}
+
+	private static String fetchInParallel(ParallelFetcher parallelFetcher, JdbcTemplate jdbcTemplate) {
+		return parallelFetcher.inParallel(() -> parallelFetcher.join(parallelFetcher.fetch(() -> instance(jdbcTemplate))));
+	}
+
+	private static String instance(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForObject("SELECT name FROM instance", String.class);
+	}
+
+	@Configuration
+	static class TransactionManagerConfig {
+
+		@Bean
+		DataSourceTransactionManager transactionManager(DataSource dataSource) {
+			return new DataSourceTransactionManager(dataSource);
+		}
+	}
+}
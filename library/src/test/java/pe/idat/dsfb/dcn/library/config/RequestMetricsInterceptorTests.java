@@ -0,0 +1,103 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import pe.idat.dsfb.dcn.library.utils.RequestStatistics;
+
+class RequestMetricsInterceptorTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SqlStatementBudget sqlStatementBudget = new SqlStatementBudget();
+	private final RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(sqlStatementBudget, "budget", 2);
+		ReflectionTestUtils.setField(sqlStatementBudget, "excluded", new String[] { "/api/books/bulk" });
+		ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(interceptor, "sqlStatementBudget", sqlStatementBudget);
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestStatistics.clear();
+	}
+
+	@Test
+	void recordsStatementsAndNotFoundPerUri() {
+		MockHttpServletRequest request = request("/api/books/{id}");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setStatus(404);
+
+		interceptor.preHandle(request, response, null);
+		RequestStatistics.statementPrepared();
+		RequestStatistics.statementPrepared();
+		RequestStatistics.queryExecuted(3);
+		interceptor.afterCompletion(request, response, null, null);
+
+		assertThat(meterRegistry.get("library.request.sql.statements").tag("uri", "/api/books/{id}").summary().totalAmount())
+				.isEqualTo(2);
+		assertThat(meterRegistry.get("library.request.query.rows").summary().totalAmount()).isEqualTo(3);
+		assertThat(meterRegistry.get("library.responses").tag("status", "404").counter().count()).isEqualTo(1);
+		assertThat(RequestStatistics.current()).isNull();
+	}
+
+	@Test
+	void reportsTheEndpointsOverBudget() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		for (int statements : new int[] { 1, 5 }) {
+			MockHttpServletRequest request = request("/api/books/page");
+			interceptor.preHandle(request, response, null);
+
+			for (int i = 0; i < statements; i++) {
+				RequestStatistics.statementPrepared();
+			}
+
+			interceptor.afterCompletion(request, response, null, null);
+		}
+
+		assertThat(sqlStatementBudget.worstOffenders(10)).singleElement().satisfies(offender -> {
+			assertThat(offender.getEndpoint()).isEqualTo("GET /api/books/page");
+			assertThat(offender.getRequests()).isEqualTo(2);
+			assertThat(offender.getOverBudget()).isEqualTo(1);
+			assertThat(offender.getMaxStatements()).isEqualTo(5);
+		});
+	}
+
+	@Test
+	void failsOverBudgetWhenConfiguredExceptForExcludedEndpoints() {
+		ReflectionTestUtils.setField(sqlStatementBudget, "fail", true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		interceptor.preHandle(request("/api/books/page"), response, null);
+		RequestStatistics.statementPrepared();
+		RequestStatistics.statementPrepared();
+		assertThatIllegalStateException().isThrownBy(RequestStatistics::statementPrepared);
+
+		interceptor.preHandle(request("/api/books/bulk"), response, null);
+
+		for (int i = 0; i < 10; i++) {
+			RequestStatistics.statementPrepared();
+		}
+
+		assertThat(RequestStatistics.current().getStatements()).isEqualTo(10);
+	}
+
+	private static MockHttpServletRequest request(String pattern) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+		return request;
+	}
+}
@@ -0,0 +1,70 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+class SqlQueryMonitorTests {
+
+	@Test
+	void timesEachQueryAndSamplesSlowOnesWithTheirParameters() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		SqlQueryMonitor monitor = new SqlQueryMonitor();
+		ReflectionTestUtils.setField(monitor, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(monitor, "slowQueryThreshold", Duration.ZERO);
+		ReflectionTestUtils.setField(monitor, "slowQuerySample", 2);
+
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:sqlquerymonitor;DB_CLOSE_DELAY=-1");
+		DataSource dataSource = ProxyDataSourceBuilder.create(h2)
+				.beforeQuery(monitor::beforeQuery)
+				.afterQuery(monitor::afterQuery)
+				.build();
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE book (id BIGINT, title VARCHAR(50))");
+
+		for (int i = 0; i < 3; i++) {
+			jdbcTemplate.update("INSERT INTO book VALUES (?, ?)", i, "Book " + i);
+		}
+
+		assertThat(monitor.getQueries(10))
+				.filteredOn(query -> query.getSql().startsWith("INSERT"))
+				.singleElement()
+				.satisfies(query -> {
+					assertThat(query.getCount()).isEqualTo(3);
+					assertThat(query.getSlowCount()).isEqualTo(3);
+					Timer timer = meterRegistry.get("library.sql.query").tag("query", query.getId()).timer();
+					assertThat(timer.count()).isEqualTo(3);
+					assertThat(timer.takeSnapshot().histogramCounts())
+							.extracting(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+							.containsExactly(5.0, 25.0, 100.0, 500.0);
+				});
+
+		// The first and the third slow insert are sampled, the latest first
+		assertThat(monitor.getSlowQueries())
+				.filteredOn(sample -> sample.getSql().startsWith("INSERT"))
+				.extracting(sample -> sample.getParameters())
+				.containsExactly("[2, Book 2]", "[0, Book 0]");
+	}
+
+	@Test
+	void inListsOfAnyLengthShareOneQuery() {
+		assertThat(SqlQueryMonitor.normalize("select b.id from book b where b.id in (?, ?,?) and b.isbn IN(?)"))
+				.isEqualTo("select b.id from book b where b.id in (...) and b.isbn IN (...)");
+		assertThat(SqlQueryMonitor.normalize("select id from author where name in (select name from category)"))
+				.isEqualTo("select id from author where name in (select name from category)");
+	}
+}
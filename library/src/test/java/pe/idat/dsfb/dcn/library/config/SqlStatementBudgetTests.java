@@ -0,0 +1,93 @@
+package pe.idat.dsfb.dcn.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+
+// The budget and the excluded endpoints come from the application properties, failing over it from the test ones.
+// MetricsConfig installs the statement counter in Hibernate, the requests go through the real interceptor.
+@DataJpaTest
+@Import({ MetricsConfig.class, RequestMetricsInterceptor.class, SqlStatementBudget.class, SimpleMeterRegistry.class })
+class SqlStatementBudgetTests {
+
+	@Autowired
+	private SqlStatementBudget sqlStatementBudget;
+
+	@Autowired
+	private RequestMetricsInterceptor requestMetricsInterceptor;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(new StatementsController(authorRepository))
+				.addMappedInterceptors(new String[] { "/api/**" }, requestMetricsInterceptor)
+				.build();
+	}
+
+	@Test
+	void requestsWithinTheBudgetSucceed() throws Exception {
+		mockMvc.perform(get("/api/statements").param("count", "20")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/statements").param("count", "20")).andExpect(status().isOk());
+	}
+
+	@Test
+	void testsFailAtTheStatementPastTheBudget() {
+		assertThat(sqlStatementBudget.limitFor("/api/statements")).isEqualTo(20);
+
+		assertThatThrownBy(() -> mockMvc.perform(get("/api/statements").param("count", "21")))
+				.rootCause()
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("The request exceeded its budget of 20 SQL statements");
+	}
+
+	@Test
+	void excludedEndpointsAreNotLimited() throws Exception {
+		assertThat(sqlStatementBudget.limitFor("/api/books/bulk")).isZero();
+		assertThat(sqlStatementBudget.limitFor("/api/books/stream")).isZero();
+		assertThat(sqlStatementBudget.limitFor("/api/books/export")).isZero();
+
+		mockMvc.perform(get("/api/books/bulk").param("count", "21")).andExpect(status().isOk());
+	}
+
+	@RestController
+	static class StatementsController {
+
+		private final AuthorRepository authorRepository;
+
+		StatementsController(AuthorRepository authorRepository) {
+			this.authorRepository = authorRepository;
+		}
+
+		// One statement per count, never served from a cache
+		@GetMapping({ "/api/statements", "/api/books/bulk" })
+		long statements(@RequestParam int count) {
+			long total = 0;
+
+			for (int i = 0; i < count; i++) {
+				total += authorRepository.count();
+			}
+
+			return total;
+		}
+	}
+}
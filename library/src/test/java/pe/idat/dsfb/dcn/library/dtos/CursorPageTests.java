@@ -0,0 +1,34 @@
+package pe.idat.dsfb.dcn.library.dtos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CursorPageTests {
+
+	@Test
+	void decodesTheIdItEncoded() {
+		assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(42L))).isEqualTo(42L);
+		assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void anEmptyCursorStartsFromTheBeginning() {
+		assertThat(CursorPage.decodeCursor("")).isZero();
+	}
+
+	@Test
+	void invalidCursorsDecodeToNull() {
+		assertThat(CursorPage.decodeCursor("not base64!")).isNull();
+		assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(1L) + "x")).isNull();
+		assertThat(CursorPage.decodeCursor("YWJj")).isNull();
+	}
+
+	@Test
+	void sizesAreKeptBetweenOneAndTheMaximum() {
+		assertThat(CursorPage.clampSize(Integer.MAX_VALUE)).isEqualTo(CursorPage.MAX_SIZE);
+		assertThat(CursorPage.clampSize(0)).isEqualTo(1);
+		assertThat(CursorPage.clampSize(-5)).isEqualTo(1);
+		assertThat(CursorPage.clampSize(10)).isEqualTo(10);
+	}
+}
@@ -0,0 +1,136 @@
+package pe.idat.dsfb.dcn.library.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+// Drives a running library instance, start it once with and once without the virtual-threads profile and compare:
+// mvn test -Dtest=ConcurrentClientsLoadTests -Dlibrary.load.url=http://localhost:8081 -Dlibrary.load.token=<jwt>
+// Optional: -Dlibrary.load.path (default /api/books/page?size=20), -Dlibrary.load.clients (5000), -Dlibrary.load.seconds (30)
+@EnabledIfSystemProperty(named = "library.load.url", matches = ".+")
+class ConcurrentClientsLoadTests {
+
+	private static final Duration BACKOFF = Duration.ofMillis(50);
+
+	@Test
+	void reportThroughputAndLatency() throws Exception {
+		String url = System.getProperty("library.load.url") + System.getProperty("library.load.path", "/api/books/page?size=20");
+		String token = System.getProperty("library.load.token", "");
+		int clients = Integer.getInteger("library.load.clients", 5000);
+		Duration duration = Duration.ofSeconds(Integer.getInteger("library.load.seconds", 30));
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+				.header("Authorization", "Bearer " + token)
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+
+		// Every request is timed, failed ones included: a timeout or a rejected connection is the slowest outcome a
+		// client sees, leaving it out would flatter the p99 of whichever mode fails more
+		Samples[] all = new Samples[clients];
+		Samples[] failed = new Samples[clients];
+		CountDownLatch start = new CountDownLatch(1);
+
+		try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+				ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			long deadline = System.nanoTime() + duration.toNanos();
+
+			for (int i = 0; i < clients; i++) {
+				Samples requests = all[i] = new Samples();
+				Samples errors = failed[i] = new Samples();
+
+				executor.submit(() -> {
+					start.await();
+
+					while (System.nanoTime() < deadline) {
+						long begin = System.nanoTime();
+						boolean ok;
+						boolean connectionFailed = false;
+
+						try {
+							ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+						} catch (IOException e) {
+							ok = false;
+							connectionFailed = true;
+						}
+
+						long elapsed = System.nanoTime() - begin;
+						requests.add(elapsed);
+
+						if (!ok) {
+							errors.add(elapsed);
+						}
+
+						// Retrying a refused or reset connection at once only adds to the overload being measured
+						if (connectionFailed) {
+							Thread.sleep(BACKOFF.toMillis());
+						}
+					}
+
+					return null;
+				});
+			}
+
+			start.countDown();
+		}
+
+		long[] latencies = merge(all);
+		long[] errorLatencies = merge(failed);
+		double seconds = duration.toMillis() / 1000.0;
+
+		System.out.printf("clients=%d requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms error-p99=%.1f ms%n",
+				clients, latencies.length, errorLatencies.length, (latencies.length - errorLatencies.length) / seconds,
+				percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0),
+				percentile(errorLatencies, 0.99));
+
+		assertThat(latencies).isNotEmpty();
+	}
+
+	private static long[] merge(Samples[] samples) {
+		long[] latencies = new long[Arrays.stream(samples).mapToInt(client -> client.count).sum()];
+		int offset = 0;
+
+		for (Samples client : samples) {
+			System.arraycopy(client.values, 0, latencies, offset, client.count);
+			offset += client.count;
+		}
+
+		Arrays.sort(latencies);
+		return latencies;
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+
+	// Latencies of one client thread, only that thread writes them
+	private static final class Samples {
+		private long[] values = new long[256];
+		private int count;
+
+		void add(long latency) {
+			if (count == values.length) {
+				values = Arrays.copyOf(values, count * 2);
+			}
+
+			values[count++] = latency;
+		}
+	}
+}
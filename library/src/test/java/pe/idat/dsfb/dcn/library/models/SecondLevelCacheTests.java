@@ -0,0 +1,54 @@
+package pe.idat.dsfb.dcn.library.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManagerFactory;
+import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+
+// Starts the JPA context with the second-level cache settings of application.properties and hibernate-jcache.conf.
+// Entries are written to the regions on commit, so each repository call runs in its own transaction.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Test
+	void referenceEntitiesAreServedFromTheirRegion() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		Statistics statistics = sessionFactory.getStatistics();
+
+		assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isTrue();
+		assertThat(statistics.getSecondLevelCacheRegionNames())
+				.contains("author", "publisher", "category", "book-authors", "book-publishers", "book-categories");
+
+		Category category = new Category();
+		category.setName("Novel");
+		category.setDescription("Description");
+		Long id = categoryRepository.save(category).getId();
+
+		try {
+			// The first load puts the entity in its region, the next one is read from there
+			categoryRepository.findById(id);
+			statistics.clear();
+
+			assertThat(categoryRepository.findById(id)).get().extracting(Category::getName).isEqualTo("Novel");
+			assertThat(statistics.getDomainDataRegionStatistics("category").getHitCount()).isEqualTo(1);
+			assertThat(statistics.getPrepareStatementCount()).isZero();
+		} finally {
+			categoryRepository.deleteById(id);
+		}
+	}
+}
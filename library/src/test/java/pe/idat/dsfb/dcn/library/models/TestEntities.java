@@ -0,0 +1,75 @@
+package pe.idat.dsfb.dcn.library.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+// Valid, unsaved entities for tests. Titles, ISBNs and emails are made unique by a per-instance sequence.
+public class TestEntities {
+
+	private int sequence;
+
+	public Author author() {
+		return author("Author " + (sequence + 1));
+	}
+
+	public Author author(String name) {
+		Author author = new Author();
+		author.setName(name);
+		author.setNationality("Peruvian");
+		author.setBirthDate(LocalDate.of(1970, 1, 1));
+		author.setBiography("Biography");
+		author.setEmail("author" + next() + "@library.pe");
+		return author;
+	}
+
+	public Publisher publisher() {
+		return publisher("Publisher " + (sequence + 1));
+	}
+
+	public Publisher publisher(String name) {
+		Publisher publisher = new Publisher();
+		publisher.setName(name);
+		publisher.setContactNumber("999999999");
+		publisher.setEmail("publisher" + next() + "@library.pe");
+		publisher.setType("Independent");
+		publisher.setCountry("Peru");
+		publisher.setWebsite("https://library.pe");
+		return publisher;
+	}
+
+	public Category category() {
+		return category("Category " + (sequence + 1));
+	}
+
+	public Category category(String name) {
+		Category category = new Category();
+		category.setName(name);
+		category.setDescription("Description");
+		next();
+		return category;
+	}
+
+	// Without authors, publishers or categories, the caller links the ones it needs
+	public Book book() {
+		return book("Title " + (sequence + 1));
+	}
+
+	public Book book(String title) {
+		Book book = new Book();
+		book.setTitle(title);
+		book.setISBN(String.valueOf(9780000000000L + next()));
+		book.setPageCount(300);
+		book.setLanguage("Spanish");
+		book.setPrice(49.9);
+		book.setPublicationDate(LocalDate.of(2020, 1, 1));
+		book.setFormat("Hardcover");
+		book.setAuthors(new ArrayList<>());
+		book.setPublishers(new ArrayList<>());
+		book.setCategories(new ArrayList<>());
+		return book;
+	}
+
+	private int next() {
+		return ++sequence;
+	}
+}
@@ -0,0 +1,73 @@
+package pe.idat.dsfb.dcn.library.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.TestEntities;
+import pe.idat.dsfb.dcn.library.utils.ETagUtils;
+
+@DataJpaTest
+class AuthorRepositoryTests {
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private final TestEntities entities = new TestEntities();
+
+	@Test
+	void eTagChangesWhenALinkIsSwappedForABookWithTheSameVersion() {
+		Author author = entityManager.persist(entities.author());
+		Book first = entityManager.persist(book(author));
+		Book second = entityManager.persist(book(author));
+		Book third = entityManager.persist(book());
+		entityManager.flush();
+
+		second.setTitle("Edited");
+		entityManager.flush();
+
+		String before = ETagUtils.of(authorRepository.findVersionById(author.getId()).orElseThrow());
+
+		// The second book leaves with version 1 and the third joins with version 1, the version sum alone stays the same
+		second.setAuthors(new ArrayList<>());
+		third.setAuthors(new ArrayList<>(List.of(author)));
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThat(entityManager.find(Book.class, third.getId()).getVersion()).isEqualTo(1L);
+		assertThat(entityManager.find(Book.class, first.getId()).getVersion()).isEqualTo(0L);
+		assertThat(ETagUtils.of(authorRepository.findVersionById(author.getId()).orElseThrow())).isNotEqualTo(before);
+	}
+
+	@Test
+	void eTagChangesWhenALinkedBookIsEdited() {
+		Author author = entityManager.persist(entities.author());
+		entityManager.persist(book(author));
+		Book edited = entityManager.persist(book(author));
+		entityManager.flush();
+
+		String before = ETagUtils.of(authorRepository.findVersionById(author.getId()).orElseThrow());
+
+		edited.setTitle("Edited");
+		entityManager.flush();
+
+		assertThat(ETagUtils.of(authorRepository.findVersionById(author.getId()).orElseThrow())).isNotEqualTo(before);
+	}
+
+	private Book book(Author... authors) {
+		Book book = entities.book();
+		book.setAuthors(new ArrayList<>(List.of(authors)));
+		return book;
+	}
+}
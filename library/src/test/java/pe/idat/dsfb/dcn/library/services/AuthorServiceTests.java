@@ -0,0 +1,134 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import pe.idat.dsfb.dcn.library.dtos.AuthorInformation;
+import pe.idat.dsfb.dcn.library.dtos.CursorPage;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.TestEntities;
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+
+@DataJpaTest
+@Import({ AuthorService.class, BookSearchIndex.class, BookDetailsCache.class })
+class AuthorServiceTests {
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private final TestEntities entities = new TestEntities();
+
+	@BeforeEach
+	void setUp() {
+		entityManager.persist(author("Gabriel García Márquez", "Colombian"));
+		entityManager.persist(author("Garcilaso de la Vega", "Peruvian"));
+		entityManager.persist(author("Mario Vargas Llosa", "Peruvian"));
+		entityManager.flush();
+	}
+
+	@Test
+	void prefixMatchesTheStartAndSkipsTheEmptyFilter() {
+		assertThat(names("Ga", "", SearchMode.PREFIX)).containsExactly("Gabriel García Márquez", "Garcilaso de la Vega");
+		assertThat(names("Ga", "Peru", SearchMode.PREFIX)).containsExactly("Garcilaso de la Vega");
+		assertThat(names("", "Peru", SearchMode.PREFIX)).containsExactly("Garcilaso de la Vega", "Mario Vargas Llosa");
+		assertThat(names("Vega", "", SearchMode.PREFIX)).isEmpty();
+	}
+
+	@Test
+	void exactMatchesWholeValuesOnly() {
+		assertThat(names("Mario Vargas Llosa", "", SearchMode.EXACT)).containsExactly("Mario Vargas Llosa");
+		assertThat(names("Mario Vargas", "", SearchMode.EXACT)).isEmpty();
+		assertThat(names("", "Peruvian", SearchMode.EXACT)).containsExactly("Garcilaso de la Vega", "Mario Vargas Llosa");
+	}
+
+	@Test
+	void emptyFiltersMatchEveryAuthor() {
+		assertThat(names("", "", SearchMode.CONTAINS)).hasSize(3);
+		assertThat(authorService.getAllAuthorsWithFiltersAfter("", "", SearchMode.PREFIX, 0, 10).getContent()).hasSize(3);
+	}
+
+	@Test
+	void keysetPagesFollowTheNextCursorToTheLastPage() {
+		CursorPage<AuthorInformation> first = authorService.getAllAuthorsWithFiltersAfter("", "", SearchMode.CONTAINS, 0, 2);
+
+		assertThat(first.getContent()).extracting(AuthorInformation::getName)
+				.containsExactly("Gabriel García Márquez", "Garcilaso de la Vega");
+		assertThat(first.getNextCursor()).isNotNull();
+
+		long after = CursorPage.decodeCursor(first.getNextCursor());
+		CursorPage<AuthorInformation> last = authorService.getAllAuthorsWithFiltersAfter("", "", SearchMode.CONTAINS, after, 2);
+
+		assertThat(last.getContent()).extracting(AuthorInformation::getName).containsExactly("Mario Vargas Llosa");
+		assertThat(last.getNextCursor()).isNull();
+	}
+
+	@Test
+	void keysetPageOfExactlyTheRemainingAuthorsHasNoNextCursor() {
+		CursorPage<AuthorInformation> page = authorService.getAllAuthorsWithFiltersAfter("", "", SearchMode.CONTAINS, 0, 3);
+
+		assertThat(page.getContent()).hasSize(3);
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	@Test
+	void keysetSizeIsClampedInsteadOfOverflowing() {
+		assertThat(authorService.getAllAuthorsWithFiltersAfter("", "", SearchMode.CONTAINS, 0, Integer.MAX_VALUE).getContent())
+				.hasSize(3);
+		assertThat(authorService.getAllAuthorsWithFiltersAfter("", "", SearchMode.CONTAINS, 0, 0).getContent()).hasSize(1);
+	}
+
+	// MATCH ... AGAINST only runs on MySQL, so the repository is mocked: the name is passed as typed, not as a LIKE
+	// pattern, and the authors come back in relevance order
+	@Test
+	void fullTextSearchKeepsTheRelevanceOrder() {
+		AuthorRepository authorRepository = mock(AuthorRepository.class);
+		AuthorService service = new AuthorService();
+		ReflectionTestUtils.setField(service, "authorRepository", authorRepository);
+
+		when(authorRepository.searchIdsByName(eq("vargas llosa"), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(3L, 1L)));
+		when(authorRepository.findInformationByIdIn(anyList())).thenReturn(List.of(information(1L), information(3L)));
+		when(authorRepository.findBookRowsByIdIn(anyList())).thenReturn(List.of());
+
+		assertThat(service.getAllAuthorsWithFilters("vargas llosa", "", SearchMode.FULLTEXT, 0, 10).getContent())
+				.extracting(AuthorInformation::getId)
+				.containsExactly(3L, 1L);
+	}
+
+	private List<String> names(String name, String nationality, SearchMode mode) {
+		return authorService.getAllAuthorsWithFilters(name, nationality, mode, 0, 10).getContent().stream()
+				.map(AuthorInformation::getName)
+				.sorted()
+				.toList();
+	}
+
+	private Author author(String name, String nationality) {
+		Author author = entities.author(name);
+		author.setNationality(nationality);
+		return author;
+	}
+
+	private static AuthorInformation information(Long id) {
+		return new AuthorInformation(id, "Author " + id, "Peruvian", LocalDate.of(1970, 1, 1), "Biography", "author@library.pe");
+	}
+}
@@ -0,0 +1,130 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import pe.idat.dsfb.dcn.library.dtos.ImportReport;
+import pe.idat.dsfb.dcn.library.models.TestEntities;
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookBatchRepository;
+import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+import pe.idat.dsfb.dcn.library.repositories.PublisherRepository;
+import pe.idat.dsfb.dcn.library.utils.CsvReader;
+
+// The stages run on their own threads, so the data they read has to be committed
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ ValidationAutoConfiguration.class, JacksonAutoConfiguration.class })
+@Import({ BookImportPipeline.class, BookImportService.class, BookBatchRepository.class, BookSearchIndex.class, BookDetailsCache.class })
+class BookImportPipelineTests {
+
+	private static final String HEADER = "title,isbn,pageCount,language,price,publicationDate,format,authorNames,categoryNames,publisherNames\n";
+
+	@Autowired
+	private BookImportPipeline bookImportPipeline;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private PublisherRepository publisherRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		TestEntities entities = new TestEntities();
+		authorRepository.save(entities.author("Ciro Alegria"));
+		publisherRepository.save(entities.publisher("Ercilla"));
+		categoryRepository.save(entities.category("Novel"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (String table : new String[] { "book_author", "book_publisher", "book_category", "book", "author", "publisher", "category" }) {
+			jdbcTemplate.update("DELETE FROM " + table);
+		}
+	}
+
+	@Test
+	void rejectsUnreadableInvalidAndUnresolvableRecords() {
+		String csv = HEADER
+				+ row("El mundo es ancho y ajeno", "9780000000001", "400", "Ciro Alegria")
+				+ row("Unreadable", "9780000000002", "many", "Ciro Alegria")
+				+ row("Too short", "9780000000003", "50", "Ciro Alegria")
+				+ row("Unknown author", "9780000000004", "400", "Nobody")
+				+ row("Already imported", "9780000000001", "400", "Ciro Alegria");
+
+		ImportReport report = run(csv);
+
+		assertThat(report.getFailure()).isNull();
+		assertThat(report.getReceived()).isEqualTo(5);
+		assertThat(report.getCreated()).isEqualTo(1);
+		assertThat(report.getRejected()).isEqualTo(4);
+		assertThat(report.getRejections()).containsExactlyInAnyOrder(
+				"Record 2: Unreadable row: For input string: \"many\"",
+				"Record 3: Page count must be at least 100.",
+				"Record 4: One or more of the provided names (author, category or publisher) do not exist.",
+				"Record 5: A book with this ISBN already exists.");
+	}
+
+	@Test
+	void rejectsAnIsbnRepeatedInALaterBatch() {
+		StringBuilder csv = new StringBuilder(HEADER);
+
+		for (int i = 0; i < BookImportService.BATCH_SIZE; i++) {
+			csv.append(row("Title " + i, String.valueOf(9780000000000L + i), "400", "Ciro Alegria"));
+		}
+
+		// The first batch may not be committed when the second one is resolved, the ISBNs in flight still catch the repeat
+		csv.append(row("Repeated", "9780000000000", "400", "Ciro Alegria"));
+		csv.append(row("New", "9789999999999", "400", "Ciro Alegria"));
+
+		ImportReport report = run(csv.toString());
+
+		assertThat(report.getFailure()).isNull();
+		assertThat(report.getCreated()).isEqualTo(BookImportService.BATCH_SIZE + 1);
+		assertThat(report.getRejections()).containsExactly(
+				"Record " + (BookImportService.BATCH_SIZE + 1) + ": A book with this ISBN already exists.");
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Long.class)).isEqualTo(BookImportService.BATCH_SIZE + 1);
+	}
+
+	@Test
+	void rejectsARowWhoseFieldNeverEnds() {
+		String csv = HEADER
+				+ "\"" + "x".repeat(CsvReader.DEFAULT_MAX_FIELD_LENGTH + 1) + "\n"
+				+ row("After the bad row", "9780000000001", "400", "Ciro Alegria");
+
+		ImportReport report = run(csv);
+
+		assertThat(report.getCreated()).isEqualTo(1);
+		assertThat(report.getRejections()).singleElement().asString().startsWith("Record 1: Field longer than");
+	}
+
+	private ImportReport run(String csv) {
+		return bookImportPipeline.run(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true);
+	}
+
+	private static String row(String title, String isbn, String pageCount, String author) {
+		return String.join(",", title, isbn, pageCount, "Spanish", "39.9", "1941-01-01", "Paperback", author, "Novel", "Ercilla") + "\n";
+	}
+}
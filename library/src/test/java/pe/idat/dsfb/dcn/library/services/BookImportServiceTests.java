@@ -0,0 +1,105 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.validation.Validation;
+import pe.idat.dsfb.dcn.library.dtos.BookValidation;
+import pe.idat.dsfb.dcn.library.dtos.BulkImportResult;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookBatchRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookRepository;
+import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+import pe.idat.dsfb.dcn.library.repositories.PublisherRepository;
+
+class BookImportServiceTests {
+
+	private final BookImportService bookImportService = new BookImportService();
+	private final BookBatchRepository bookBatchRepository = mock(BookBatchRepository.class);
+
+	@BeforeEach
+	void setUp() {
+		BookRepository bookRepository = mock(BookRepository.class);
+		AuthorRepository authorRepository = mock(AuthorRepository.class);
+		PublisherRepository publisherRepository = mock(PublisherRepository.class);
+		CategoryRepository categoryRepository = mock(CategoryRepository.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+		when(bookRepository.findISBNsIn(anyList())).thenReturn(List.of());
+		when(authorRepository.findByNameIn(anyList())).thenReturn(List.of(named(new Author())));
+		when(publisherRepository.findByNameIn(anyList())).thenReturn(List.of(named(new Publisher())));
+		when(categoryRepository.findByNameIn(anyList())).thenReturn(List.of(named(new Category())));
+
+		ReflectionTestUtils.setField(bookImportService, "bookRepository", bookRepository);
+		ReflectionTestUtils.setField(bookImportService, "authorRepository", authorRepository);
+		ReflectionTestUtils.setField(bookImportService, "publisherRepository", publisherRepository);
+		ReflectionTestUtils.setField(bookImportService, "categoryRepository", categoryRepository);
+		ReflectionTestUtils.setField(bookImportService, "bookBatchRepository", bookBatchRepository);
+		ReflectionTestUtils.setField(bookImportService, "bookSearchIndex", mock(BookSearchIndex.class));
+		ReflectionTestUtils.setField(bookImportService, "bookDetailsCache", mock(BookDetailsCache.class));
+		ReflectionTestUtils.setField(bookImportService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(bookImportService, "transactionTemplate", new TransactionTemplate(transactionManager));
+	}
+
+	@Test
+	void aFailedBatchIsReportedAndTheOthersAreKept() {
+		List<BookValidation> records = new ArrayList<>();
+
+		for (int i = 0; i < 2 * BookImportService.BATCH_SIZE + 1; i++) {
+			records.add(record(String.valueOf(9780000000000L + i)));
+		}
+
+		// The second batch hits a constraint, the first and the last one go through
+		doNothing()
+				.doThrow(new DataIntegrityViolationException("Duplicate entry"))
+				.doNothing()
+				.when(bookBatchRepository).insertAll(anyList());
+
+		BulkImportResult result = bookImportService.importAll(records);
+
+		assertThat(result.getReceived()).isEqualTo(2 * BookImportService.BATCH_SIZE + 1);
+		assertThat(result.getCreated()).isEqualTo(BookImportService.BATCH_SIZE + 1);
+		assertThat(result.getErrors()).hasSize(BookImportService.BATCH_SIZE);
+		assertThat(result.getErrors().get(0))
+				.isEqualTo("Record " + BookImportService.BATCH_SIZE + ": Not imported, its batch failed: Duplicate entry");
+	}
+
+	private static BookValidation record(String isbn) {
+		BookValidation record = new BookValidation();
+		record.setTitle("Tradiciones peruanas");
+		record.setISBN(isbn);
+		record.setPageCount(400);
+		record.setLanguage("Spanish");
+		record.setPrice(39.9);
+		record.setLocalDate(LocalDate.of(1872, 1, 1));
+		record.setFormat("Paperback");
+		record.setAuthorNames(List.of("Ricardo Palma"));
+		record.setCategoryNames(List.of("Ricardo Palma"));
+		record.setPublisherNames(List.of("Ricardo Palma"));
+		return record;
+	}
+
+	private static <T> T named(T entity) {
+		ReflectionTestUtils.setField(entity, "id", 1L);
+		ReflectionTestUtils.setField(entity, "name", "Ricardo Palma");
+		return entity;
+	}
+}
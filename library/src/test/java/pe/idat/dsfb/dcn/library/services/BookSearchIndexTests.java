@@ -0,0 +1,126 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pe.idat.dsfb.dcn.library.dtos.BookSearchResult;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.models.TestEntities;
+
+class BookSearchIndexTests {
+
+	private final BookSearchIndex bookSearchIndex = new BookSearchIndex();
+	private final TestEntities entities = new TestEntities();
+
+	private final Author garciaMarquez = author(1L, "Gabriel García Márquez");
+	private final Author vargasLlosa = author(2L, "Mario Vargas Llosa");
+	private final Publisher publisher = publisher(1L, "Sudamericana");
+	private final Category novel = category(1L, "Novel");
+
+	@Test
+	void scoresByFieldWeightAndTermRarity() {
+		bookSearchIndex.index(book(1L, "Cien años de soledad", garciaMarquez));
+		bookSearchIndex.index(book(2L, "El amor en los tiempos del cólera", garciaMarquez));
+		bookSearchIndex.index(book(3L, "La ciudad y los perros", vargasLlosa));
+
+		List<BookSearchResult> results = bookSearchIndex.search("Soledad GARCIA", 10);
+
+		// Title terms weigh 5, author names 3, each scaled by log(1 + books / books with the term)
+		assertThat(results).extracting(BookSearchResult::getId).containsExactly(1L, 2L);
+		assertThat(results.get(0).getScore()).isCloseTo(5 * Math.log(4) + 3 * Math.log(2.5), within(1e-9));
+		assertThat(results.get(1).getScore()).isCloseTo(3 * Math.log(2.5), within(1e-9));
+		assertThat(results.get(0).getTitle()).isEqualTo("Cien años de soledad");
+	}
+
+	@Test
+	void mergesLongPostingListsAndKeepsTheBestHits() {
+		for (long id = 1; id <= 3 * PostingList.BLOCK_SIZE; id++) {
+			bookSearchIndex.index(book(id, id % 100 == 0 ? "Saga saga finale" : "Saga volume", vargasLlosa));
+		}
+
+		bookSearchIndex.index(book(1000L, "Finale", garciaMarquez));
+
+		List<BookSearchResult> results = bookSearchIndex.search("saga finale", 3);
+
+		assertThat(results).extracting(BookSearchResult::getId).containsExactly(100L, 200L, 300L);
+		assertThat(bookSearchIndex.search("saga", 1000)).hasSize(3 * PostingList.BLOCK_SIZE);
+	}
+
+	@Test
+	void sizesTheHeapByTheIndexedBooksRatherThanTheLimit() {
+		bookSearchIndex.index(book(1L, "Cien años de soledad", garciaMarquez));
+
+		assertThat(bookSearchIndex.search("soledad", Integer.MAX_VALUE)).extracting(BookSearchResult::getId).containsExactly(1L);
+	}
+
+	@Test
+	void reindexesOnlyTheBooksOfARenamedAuthor() {
+		bookSearchIndex.index(book(1L, "Cien años de soledad", garciaMarquez));
+		bookSearchIndex.index(book(2L, "La ciudad y los perros", vargasLlosa));
+
+		bookSearchIndex.updateAuthor(author(1L, "Gabo"));
+
+		assertThat(bookSearchIndex.search("gabo", 10)).extracting(BookSearchResult::getId).containsExactly(1L);
+		assertThat(bookSearchIndex.search("marquez", 10)).isEmpty();
+		assertThat(bookSearchIndex.search("vargas", 10)).extracting(BookSearchResult::getId).containsExactly(2L);
+
+		bookSearchIndex.removeAuthor(2L);
+		bookSearchIndex.remove(1L);
+
+		assertThat(bookSearchIndex.search("vargas gabo", 10)).isEmpty();
+		assertThat(bookSearchIndex.search("perros", 10)).extracting(BookSearchResult::getId).containsExactly(2L);
+	}
+
+	@Test
+	void appliesChangesOnlyOnceTheTransactionCommits() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		try {
+			bookSearchIndex.index(book(1L, "Cien años de soledad", garciaMarquez));
+
+			assertThat(bookSearchIndex.search("soledad", 10)).isEmpty();
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(bookSearchIndex.search("soledad", 10)).extracting(BookSearchResult::getId).containsExactly(1L);
+	}
+
+	private Book book(Long id, String title, Author author) {
+		Book book = entities.book(title);
+		book.setId(id);
+		book.setAuthors(List.of(author));
+		book.setPublishers(List.of(publisher));
+		book.setCategories(List.of(novel));
+		return book;
+	}
+
+	private Author author(Long id, String name) {
+		Author author = entities.author(name);
+		author.setId(id);
+		return author;
+	}
+
+	private Publisher publisher(Long id, String name) {
+		Publisher publisher = entities.publisher(name);
+		publisher.setId(id);
+		return publisher;
+	}
+
+	private Category category(Long id, String name) {
+		Category category = entities.category(name);
+		category.setId(id);
+		return category;
+	}
+}
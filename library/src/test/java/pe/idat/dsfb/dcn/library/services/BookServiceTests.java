@@ -0,0 +1,115 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import pe.idat.dsfb.dcn.library.dtos.BookDetails;
+import pe.idat.dsfb.dcn.library.dtos.SearchMode;
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.models.TestEntities;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ BookService.class, BookSearchIndex.class, BookDetailsCache.class, ParallelFetcher.class, BookDetailsMapper.class })
+class BookServiceTests {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private final TestEntities entities = new TestEntities();
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManager()
+				.getEntityManagerFactory()
+				.unwrap(SessionFactory.class)
+				.getStatistics();
+	}
+
+	@Test
+	void getAllBookDetailsIssuesConstantNumberOfStatements() {
+		seedBooks(2);
+		long fewBooks = countStatements(() -> assertThat(bookService.getAllBookDetails()).hasSize(2));
+
+		seedBooks(25);
+		long manyBooks = countStatements(() -> assertThat(bookService.getAllBookDetails()).hasSize(27));
+
+		assertThat(fewBooks).isEqualTo(4);
+		assertThat(manyBooks).isEqualTo(fewBooks);
+	}
+
+	@Test
+	void getAllBookDetailsWithFiltersIssuesConstantNumberOfStatements() {
+		seedBooks(30);
+
+		long statements = countStatements(() -> assertThat(bookService.getAllBookDetailsWithFilters("", "", "", SearchMode.CONTAINS, 0, 20)).hasSize(20));
+
+		assertThat(statements).isEqualTo(5);
+	}
+
+	@Test
+	void getBookDetailsLoadsAllAssociations() {
+		List<Book> books = seedBooks(1);
+		Long id = books.get(0).getId();
+
+		long statements = countStatements(() -> {
+			BookDetails details = bookService.getBookDetails(id);
+
+			assertThat(details.getAuthors()).hasSize(2);
+			assertThat(details.getPublishers()).hasSize(1);
+			assertThat(details.getCategories()).hasSize(2);
+		});
+
+		assertThat(statements).isEqualTo(4);
+	}
+
+	private long countStatements(Runnable action) {
+		entityManager.clear();
+		statistics.clear();
+
+		action.run();
+
+		return statistics.getPrepareStatementCount();
+	}
+
+	private List<Book> seedBooks(int count) {
+		Author firstAuthor = entityManager.persist(entities.author());
+		Author secondAuthor = entityManager.persist(entities.author());
+		Publisher publisher = entityManager.persist(entities.publisher());
+		Category firstCategory = entityManager.persist(entities.category());
+		Category secondCategory = entityManager.persist(entities.category());
+
+		List<Book> books = new ArrayList<>();
+
+		for (int i = 0; i < count; i++) {
+			Book book = entities.book();
+			book.setAuthors(List.of(firstAuthor, secondAuthor));
+			book.setPublishers(List.of(publisher));
+			book.setCategories(List.of(firstCategory, secondCategory));
+			books.add(entityManager.persist(book));
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+
+		return books;
+	}
+}
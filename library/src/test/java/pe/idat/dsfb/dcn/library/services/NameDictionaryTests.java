@@ -0,0 +1,86 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pe.idat.dsfb.dcn.library.dtos.NameReference;
+import pe.idat.dsfb.dcn.library.models.Author;
+
+class NameDictionaryTests {
+
+	private final NameDictionary<Author> nameDictionary = new NameDictionary<>(Author.class);
+
+	@Test
+	void resolvesEveryIdThatCarriesAName() {
+		nameDictionary.load(List.of(new NameReference(1L, "Ricardo Palma"), new NameReference(2L, "ricardo palma"),
+				new NameReference(3L, "César Vallejo")));
+
+		assertThat(nameDictionary.ids(List.of("RICARDO PALMA", "Ricardo Palma", "Nobody"))).containsExactly(1L, 2L);
+		assertThat(nameDictionary.ids(List.of("césar vallejo"))).containsExactly(3L);
+	}
+
+	@Test
+	void renamingOrRemovingAnIdLeavesTheOthersWithTheSameName() {
+		nameDictionary.load(List.of(new NameReference(1L, "Ricardo Palma"), new NameReference(2L, "Ricardo Palma")));
+
+		nameDictionary.put(1L, "Manuel Ricardo Palma");
+		assertThat(nameDictionary.ids(List.of("Ricardo Palma"))).containsExactly(2L);
+		assertThat(nameDictionary.ids(List.of("Manuel Ricardo Palma"))).containsExactly(1L);
+
+		nameDictionary.remove(2L);
+		assertThat(nameDictionary.ids(List.of("Ricardo Palma"))).isEmpty();
+	}
+
+	@Test
+	void appliesChangesOnlyOnceTheTransactionCommits() {
+		nameDictionary.load(List.of());
+		TransactionSynchronizationManager.initSynchronization();
+
+		try {
+			nameDictionary.put(1L, "Ricardo Palma");
+			assertThat(nameDictionary.ids(List.of("Ricardo Palma"))).isEmpty();
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(nameDictionary.ids(List.of("Ricardo Palma"))).containsExactly(1L);
+	}
+
+	@Test
+	void usesTheNameQueryUntilLoaded() {
+		Author author = new Author();
+		author.setName("Ricardo Palma");
+
+		assertThat(nameDictionary.findByNames(List.of("Ricardo Palma"), null, names -> List.of(author))).containsExactly(author);
+	}
+
+	@Test
+	void ignoresAccentsLikeTheColumnCollation() {
+		nameDictionary.load(List.of(new NameReference(1L, "José María Arguedas")));
+
+		assertThat(nameDictionary.ids(List.of("Jose Maria Arguedas"))).containsExactly(1L);
+		assertThat(nameDictionary.ids(List.of("JOSÉ MARÍA ARGUEDAS"))).containsExactly(1L);
+	}
+
+	@Test
+	void asksTheNameQueryOnlyForUnknownNames() {
+		Author author = new Author();
+		author.setName("Ricardo Palma");
+		List<List<String>> queried = new ArrayList<>();
+		nameDictionary.load(List.of());
+
+		assertThat(nameDictionary.findByNames(List.of("Ricardo Palma"), null, names -> {
+			queried.add(names);
+			return List.of(author);
+		})).containsExactly(author);
+		assertThat(queried).containsExactly(List.of("Ricardo Palma"));
+	}
+}
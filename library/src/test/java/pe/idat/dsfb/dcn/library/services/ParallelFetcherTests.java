@@ -0,0 +1,112 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ParallelFetcherTests {
+
+	private final ParallelFetcher parallelFetcher = new ParallelFetcher();
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:parallelfetcher;DB_CLOSE_DELAY=-1");
+
+		ReflectionTestUtils.setField(parallelFetcher, "enabled", true);
+		ReflectionTestUtils.setField(parallelFetcher, "threads", 2);
+		ReflectionTestUtils.setField(parallelFetcher, "queue", 4);
+		ReflectionTestUtils.setField(parallelFetcher, "timeout", Duration.ofMillis(200));
+		// One request may fan out at a time
+		ReflectionTestUtils.setField(parallelFetcher, "poolSize", 3);
+		ReflectionTestUtils.setField(parallelFetcher, "transactionManager", new DataSourceTransactionManager(dataSource));
+		parallelFetcher.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		parallelFetcher.shutdown();
+	}
+
+	@Test
+	void fetchesOnThePoolOnlyInsideAFanOut() {
+		String inline = parallelFetcher.join(parallelFetcher.fetch(ParallelFetcherTests::thread));
+		String fannedOut = parallelFetcher.inParallel(() -> parallelFetcher.join(parallelFetcher.fetch(ParallelFetcherTests::thread)));
+
+		assertThat(inline).isEqualTo(thread());
+		assertThat(fannedOut).startsWith("parallel-fetch-");
+	}
+
+	@Test
+	void runsInlineWhileTheOtherCallersHoldEveryPermit() throws Exception {
+		CountDownLatch fannedOut = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Thread holder = Thread.ofPlatform().start(() -> parallelFetcher.inParallel(() -> {
+			fannedOut.countDown();
+			await(release);
+			return null;
+		}));
+
+		try {
+			assertThat(fannedOut.await(5, TimeUnit.SECONDS)).isTrue();
+
+			String fetchedOn = parallelFetcher.inParallel(() -> parallelFetcher.join(parallelFetcher.fetch(ParallelFetcherTests::thread)));
+
+			assertThat(fetchedOn).isEqualTo(thread());
+		} finally {
+			release.countDown();
+			holder.join();
+		}
+	}
+
+	@Test
+	void joinRethrowsTheTaskException() {
+		CompletableFuture<Object> failed = parallelFetcher.inParallel(() -> parallelFetcher.fetch(() -> {
+			throw new IllegalArgumentException("Unknown column");
+		}));
+
+		assertThatIllegalArgumentException().isThrownBy(() -> parallelFetcher.join(failed)).withMessage("Unknown column");
+	}
+
+	@Test
+	void joinGivesUpAfterTheTimeout() {
+		CountDownLatch release = new CountDownLatch(1);
+
+		try {
+			CompletableFuture<Object> slow = parallelFetcher.inParallel(() -> parallelFetcher.fetch(() -> {
+				await(release);
+				return null;
+			}));
+
+			assertThatExceptionOfType(QueryTimeoutException.class).isThrownBy(() -> parallelFetcher.join(slow));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private static String thread() {
+		return Thread.currentThread().getName();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package pe.idat.dsfb.dcn.library.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class PostingListTests {
+
+	@Test
+	void keepsIdsInOrderWhateverTheOrderTheyArriveIn() {
+		PostingList postingList = new PostingList();
+		postingList.add(10, 5);
+		postingList.add(3, 2);
+		postingList.add(7, 1);
+		postingList.add(3, 4);
+
+		assertThat(read(postingList)).containsExactly(new long[] { 3, 4 }, new long[] { 7, 1 }, new long[] { 10, 5 });
+		assertThat(postingList.size()).isEqualTo(3);
+	}
+
+	@Test
+	void removesOnlyTheGivenId() {
+		PostingList postingList = new PostingList();
+
+		for (long id = 1; id <= 5; id++) {
+			postingList.add(id, 1);
+		}
+
+		postingList.remove(3);
+		postingList.remove(42);
+
+		assertThat(read(postingList)).extracting(entry -> entry[0]).containsExactly(1L, 2L, 4L, 5L);
+		assertThat(postingList.size()).isEqualTo(4);
+	}
+
+	@Test
+	void staysSortedAcrossBlockSplitsAndEmptiedBlocks() {
+		PostingList postingList = new PostingList();
+		Map<Long, Integer> expected = new TreeMap<>();
+		Random random = new Random(42);
+
+		// Appends fill whole blocks, the shuffled adds split them and the removes empty some of them
+		for (long id = 0; id < 10 * PostingList.BLOCK_SIZE; id += 2) {
+			postingList.add(id, 1);
+			expected.put(id, 1);
+		}
+
+		for (int i = 0; i < 5 * PostingList.BLOCK_SIZE; i++) {
+			long id = random.nextInt(10 * PostingList.BLOCK_SIZE);
+			int weight = random.nextInt(100);
+
+			if (random.nextInt(3) == 0) {
+				postingList.remove(id);
+				expected.remove(id);
+			} else {
+				postingList.add(id, weight);
+				expected.put(id, weight);
+			}
+		}
+
+		for (long id = 0; id < 3 * PostingList.BLOCK_SIZE; id++) {
+			postingList.remove(id);
+			expected.remove(id);
+		}
+
+		List<long[]> entries = read(postingList);
+
+		assertThat(entries).extracting(entry -> entry[0]).containsExactlyElementsOf(expected.keySet());
+		assertThat(entries).extracting(entry -> (int) entry[1]).containsExactlyElementsOf(expected.values());
+		assertThat(postingList.size()).isEqualTo(expected.size());
+	}
+
+	private static List<long[]> read(PostingList postingList) {
+		List<long[]> entries = new ArrayList<>();
+		PostingList.Cursor cursor = postingList.cursor();
+
+		while (cursor.next()) {
+			entries.add(new long[] { cursor.id(), cursor.weight() });
+		}
+
+		return entries;
+	}
+}
@@ -0,0 +1,40 @@
+package pe.idat.dsfb.dcn.library.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTests {
+
+	@Test
+	void readsQuotedFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("title,isbn\r\n\"Hello, \"\"World\"\"\",\"97800\n01\"\nlast,\n"));
+
+		assertThat(reader.readRecord()).containsExactly("title", "isbn");
+		assertThat(reader.readRecord()).containsExactly("Hello, \"World\"", "97800\n01");
+		assertThat(reader.readRecord()).containsExactly("last", "");
+		assertThat(reader.readRecord()).isNull();
+	}
+
+	@Test
+	void rejectsAQuoteLeftOpenAtTheEndOfTheInput() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("a,\"b"));
+
+		assertThatIOException().isThrownBy(reader::readRecord).withMessage("Unterminated quoted field");
+	}
+
+	@Test
+	void skipsARecordWithATooLongFieldAndKeepsReading() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("ok,1\n\"never closed,0123456789\nnext,2\n"), 8);
+
+		assertThat(reader.readRecord()).containsExactly("ok", "1");
+		assertThatExceptionOfType(CsvReader.FieldTooLongException.class).isThrownBy(reader::readRecord);
+		assertThat(reader.readRecord()).containsExactly("next", "2");
+		assertThat(reader.readRecord()).isNull();
+	}
+}
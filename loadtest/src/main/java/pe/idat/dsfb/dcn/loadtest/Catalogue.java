@@ -0,0 +1,121 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import pe.idat.dsfb.dcn.library.models.Author;
+import pe.idat.dsfb.dcn.library.models.Book;
+import pe.idat.dsfb.dcn.library.models.Category;
+import pe.idat.dsfb.dcn.library.models.Publisher;
+import pe.idat.dsfb.dcn.library.repositories.AuthorRepository;
+import pe.idat.dsfb.dcn.library.repositories.BookRepository;
+import pe.idat.dsfb.dcn.library.repositories.CategoryRepository;
+import pe.idat.dsfb.dcn.library.repositories.PublisherRepository;
+import pe.idat.dsfb.dcn.library.services.AuthorService;
+import pe.idat.dsfb.dcn.library.services.BookService;
+import pe.idat.dsfb.dcn.library.services.CategoryService;
+import pe.idat.dsfb.dcn.library.services.PublisherService;
+
+// The synthetic catalogue. The entity at index i of each array is named after i ("Author 12", "Book 12"...), so the
+// workload can build valid requests from an index alone.
+record Catalogue(long[] bookIds, long[] authorIds, long[] publisherIds, long[] categoryIds) {
+
+    private static final int BATCH = 1_000;
+
+    static String authorName(int index) {
+        return "Author " + index;
+    }
+
+    static String publisherName(int index) {
+        return "Publisher " + index;
+    }
+
+    static String categoryName(int index) {
+        return "Category " + index;
+    }
+
+    static String isbn(int index) {
+        return String.format("978%010d", index);
+    }
+
+    // Seeds through the repositories, then reloads the name dictionaries and the search index that the services only
+    // build at startup
+    static Catalogue seed(ConfigurableApplicationContext library, LoadTestOptions options) {
+        List<Author> authors = new ArrayList<>(options.authors());
+        for (int i = 0; i < options.authors(); i++) {
+            Author author = new Author();
+            author.setName(authorName(i));
+            author.setNationality(i % 2 == 0 ? "Peruvian" : "Chilean");
+            author.setBirthDate(LocalDate.of(1950, 1, 1).plusDays(i));
+            author.setBiography("Biography of author " + i);
+            author.setEmail("author" + i + "@mail.com");
+            authors.add(author);
+        }
+        authors = saveAll(library.getBean(AuthorRepository.class), authors);
+
+        List<Publisher> publishers = new ArrayList<>(options.publishers());
+        for (int i = 0; i < options.publishers(); i++) {
+            Publisher publisher = new Publisher();
+            publisher.setName(publisherName(i));
+            publisher.setContactNumber("999" + i);
+            publisher.setEmail("publisher" + i + "@mail.com");
+            publisher.setType("Editorial");
+            publisher.setCountry("Peru");
+            publisher.setWebsite("https://publisher" + i + ".pe");
+            publishers.add(publisher);
+        }
+        publishers = saveAll(library.getBean(PublisherRepository.class), publishers);
+
+        List<Category> categories = new ArrayList<>(options.categories());
+        for (int i = 0; i < options.categories(); i++) {
+            Category category = new Category();
+            category.setName(categoryName(i));
+            category.setDescription("Description of category " + i);
+            categories.add(category);
+        }
+        categories = saveAll(library.getBean(CategoryRepository.class), categories);
+
+        List<Book> books = new ArrayList<>(options.books());
+        for (int i = 0; i < options.books(); i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setISBN(isbn(i));
+            book.setPageCount(100 + i % 1000);
+            book.setLanguage(i % 2 == 0 ? "Spanish" : "English");
+            book.setPrice(20 + i % 80);
+            book.setPublicationDate(LocalDate.of(2000, 1, 1).plusDays(i % 9000));
+            book.setFormat(i % 3 == 0 ? "Hardcover" : "Paperback");
+            book.setAuthors(List.of(authors.get(i % authors.size()), authors.get((i * 7 + 1) % authors.size())));
+            book.setPublishers(List.of(publishers.get(i % publishers.size())));
+            book.setCategories(List.of(categories.get(i % categories.size()), categories.get((i * 3 + 1) % categories.size())));
+            books.add(book);
+        }
+        books = saveAll(library.getBean(BookRepository.class), books);
+
+        library.getBean(AuthorService.class).loadNameDictionary();
+        library.getBean(PublisherService.class).loadNameDictionary();
+        library.getBean(CategoryService.class).loadNameDictionary();
+        library.getBean(BookService.class).buildSearchIndex();
+
+        return new Catalogue(
+                books.stream().mapToLong(Book::getId).toArray(),
+                authors.stream().mapToLong(Author::getId).toArray(),
+                publishers.stream().mapToLong(Publisher::getId).toArray(),
+                categories.stream().mapToLong(Category::getId).toArray());
+    }
+
+    // One transaction per batch keeps the persistence context small
+    private static <T> List<T> saveAll(JpaRepository<T, Long> repository, List<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+
+        for (int start = 0; start < entities.size(); start += BATCH) {
+            saved.addAll(repository.saveAll(entities.subList(start, Math.min(start + BATCH, entities.size()))));
+        }
+
+        return saved;
+    }
+}
@@ -0,0 +1,94 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+// Prints the measured window. The GC figures cover the whole JVM, so they include the load generator's own allocations
+// and collections; compare them between runs of the same harness, not as absolute server numbers.
+class LoadReport {
+
+    private final Map<String, long[]> collectorsBefore;
+    private final long allocatedBefore;
+
+    private LoadReport(Map<String, long[]> collectorsBefore, long allocatedBefore) {
+        this.collectorsBefore = collectorsBefore;
+        this.allocatedBefore = allocatedBefore;
+    }
+
+    static LoadReport start() {
+        return new LoadReport(collectors(), allocatedBytes());
+    }
+
+    void print(LoadTestOptions options, Workload.Results results, PrintStream out) {
+        Map<String, long[]> collectorsAfter = collectors();
+        long allocated = allocatedBytes() - allocatedBefore;
+        double seconds = results.elapsed().toNanos() / 1e9;
+
+        out.printf("books=%d authors=%d publishers=%d categories=%d clients=%d writes=%d%% virtual-threads=%b duration=%.1fs%n%n",
+                options.books(), options.authors(), options.publishers(), options.categories(), options.clients(),
+                options.writePercent(), options.virtualThreads(), seconds);
+        out.printf("%-20s %10s %8s %10s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+
+        for (Operation operation : Operation.values()) {
+            Histogram latencies = results.latencies().get(operation);
+            long errors = results.errors().get(operation);
+
+            if (latencies.getTotalCount() + errors == 0) {
+                continue;
+            }
+
+            line(out, operation.name(), latencies, errors, seconds);
+            total.add(latencies);
+            totalErrors += errors;
+        }
+
+        line(out, "TOTAL", total, totalErrors, seconds);
+
+        out.println();
+        out.printf("allocated %.1f MB (%.1f MB/s)%n", allocated / 1e6, allocated / 1e6 / seconds);
+
+        for (Map.Entry<String, long[]> collector : collectorsAfter.entrySet()) {
+            long[] before = collectorsBefore.getOrDefault(collector.getKey(), new long[2]);
+            out.printf("%-24s %6d collections %8d ms%n", collector.getKey(),
+                    collector.getValue()[0] - before[0], collector.getValue()[1] - before[1]);
+        }
+    }
+
+    private static void line(PrintStream out, String name, Histogram latencies, long errors, double seconds) {
+        out.printf("%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, latencies.getTotalCount(), errors,
+                latencies.getTotalCount() / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // Collection count and accumulated time per collector
+    private static Map<String, long[]> collectors() {
+        Map<String, long[]> collectors = new LinkedHashMap<>();
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(collector.getName(), new long[] { collector.getCollectionCount(), collector.getCollectionTime() });
+        }
+
+        return collectors;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+
+        return 0;
+    }
+}
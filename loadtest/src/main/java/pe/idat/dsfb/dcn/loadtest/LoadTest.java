@@ -0,0 +1,30 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.net.http.HttpClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Boots the authserver and the library on H2, seeds the catalogue, logs in and replays the read/write mix of Operation.
+// Options (defaults): --books=10000 --authors=1000 --publishers=100 --categories=50 --clients=200 --warmup=15
+// --duration=60 (seconds) --writes=10 (percent of requests) --virtual-threads=false (library profile)
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (Servers servers = Servers.start(options);
+                HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            Catalogue catalogue = Catalogue.seed(servers.library(), options);
+            String token = servers.login(httpClient);
+            Workload workload = new Workload(httpClient, servers.libraryUrl(), token, catalogue, options, new ObjectMapper());
+
+            System.out.printf("Warming up for %ds%n", options.warmup().toSeconds());
+            workload.run(options.warmup());
+
+            System.gc();
+            LoadReport report = LoadReport.start();
+            Workload.Results results = workload.run(options.duration());
+            report.print(options, results, System.out);
+        }
+    }
+}
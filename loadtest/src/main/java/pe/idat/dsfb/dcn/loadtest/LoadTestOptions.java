@@ -0,0 +1,58 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line options in --name=value form, anything not given keeps its default.
+record LoadTestOptions(
+        int books,
+        int authors,
+        int publishers,
+        int categories,
+        int clients,
+        Duration warmup,
+        Duration duration,
+        int writePercent,
+        boolean virtualThreads) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                number(values, "books", 10_000),
+                number(values, "authors", 1_000),
+                number(values, "publishers", 100),
+                number(values, "categories", 50),
+                number(values, "clients", 200),
+                Duration.ofSeconds(number(values, "warmup", 15)),
+                Duration.ofSeconds(number(values, "duration", 60)),
+                number(values, "writes", 10),
+                Boolean.parseBoolean(values.remove("virtual-threads")));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+
+        if (options.writePercent() < 0 || options.writePercent() > 100) {
+            throw new IllegalArgumentException("--writes is a percentage between 0 and 100");
+        }
+
+        return options;
+    }
+
+    private static int number(Map<String, String> values, String name, int defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,182 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The requests of the mix. Reads and writes are weighted within their own group, --writes sets the share of the groups.
+// Writes never delete and never rename a seeded entity, so every read stays valid for the whole run.
+enum Operation {
+
+    GET_BOOK(false, 30) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/books/" + pick(catalogue.bookIds(), random));
+        }
+    },
+    GET_BOOK_PAGE(false, 15) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/books/page?size=20&page=" + random.nextInt(Math.max(1, catalogue.bookIds().length / 20)));
+        }
+    },
+    FILTER_BOOKS(false, 5) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/books/page?size=20&language=" + (random.nextBoolean() ? "Spanish" : "English")
+                    + "&format=Hardcover");
+        }
+    },
+    SEARCH_BOOKS(false, 5) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/books/search?limit=10&q=Book%20" + random.nextInt(catalogue.bookIds().length));
+        }
+    },
+    GET_AUTHOR(false, 12) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/authors/" + pick(catalogue.authorIds(), random));
+        }
+    },
+    GET_AUTHOR_PAGE(false, 5) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/authors/page?size=20&page=" + random.nextInt(Math.max(1, catalogue.authorIds().length / 20)));
+        }
+    },
+    GET_PUBLISHER(false, 10) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/publishers/" + pick(catalogue.publisherIds(), random));
+        }
+    },
+    GET_PUBLISHER_PAGE(false, 4) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/publishers/page?size=20");
+        }
+    },
+    GET_CATEGORY(false, 10) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/categories/" + pick(catalogue.categoryIds(), random));
+        }
+    },
+    GET_CATEGORY_PAGE(false, 4) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.get("/api/categories/page?size=20");
+        }
+    },
+    CREATE_BOOK(true, 35) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            // 979 keeps the generated ISBNs apart from the seeded 978 ones
+            return Request.post("/api/books", book(catalogue, random, "Load book " + sequence, String.format("979%010d", sequence)));
+        }
+    },
+    UPDATE_BOOK(true, 30) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            int index = random.nextInt(catalogue.bookIds().length);
+            return Request.put("/api/books/" + catalogue.bookIds()[index],
+                    book(catalogue, random, "Book " + index, Catalogue.isbn(index)));
+        }
+    },
+    CREATE_AUTHOR(true, 15) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            return Request.post("/api/authors", author("Load author " + sequence, sequence));
+        }
+    },
+    UPDATE_AUTHOR(true, 10) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            int index = random.nextInt(catalogue.authorIds().length);
+            return Request.put("/api/authors/" + catalogue.authorIds()[index], author(Catalogue.authorName(index), sequence));
+        }
+    },
+    UPDATE_PUBLISHER(true, 5) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            int index = random.nextInt(catalogue.publisherIds().length);
+            return Request.put("/api/publishers/" + catalogue.publisherIds()[index], Map.of(
+                    "name", Catalogue.publisherName(index),
+                    "contactNumber", "999" + index,
+                    "email", "publisher" + index + "@mail.com",
+                    "type", "Editorial",
+                    "country", "Peru",
+                    "website", "https://publisher" + index + ".pe/" + sequence % 1000));
+        }
+    },
+    UPDATE_CATEGORY(true, 5) {
+        @Override
+        Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence) {
+            int index = random.nextInt(catalogue.categoryIds().length);
+            return Request.put("/api/categories/" + catalogue.categoryIds()[index], Map.of(
+                    "name", Catalogue.categoryName(index),
+                    "description", "Description of category " + index + " revision " + sequence));
+        }
+    };
+
+    private final boolean write;
+    private final int weight;
+
+    Operation(boolean write, int weight) {
+        this.write = write;
+        this.weight = weight;
+    }
+
+    boolean isWrite() {
+        return write;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    abstract Request request(Catalogue catalogue, ThreadLocalRandom random, long sequence);
+
+    private static long pick(long[] ids, ThreadLocalRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static Map<String, Object> book(Catalogue catalogue, ThreadLocalRandom random, String title, String isbn) {
+        return Map.of(
+                "title", title,
+                "isbn", isbn,
+                "pageCount", 100 + random.nextInt(1000),
+                "language", random.nextBoolean() ? "Spanish" : "English",
+                "price", 20 + random.nextInt(80),
+                "publicationDate", "2020-01-01",
+                "format", random.nextBoolean() ? "Hardcover" : "Paperback",
+                "authorNames", List.of(Catalogue.authorName(random.nextInt(catalogue.authorIds().length))),
+                "publisherNames", List.of(Catalogue.publisherName(random.nextInt(catalogue.publisherIds().length))),
+                "categoryNames", List.of(Catalogue.categoryName(random.nextInt(catalogue.categoryIds().length))));
+    }
+
+    private static Map<String, Object> author(String name, long sequence) {
+        return Map.of(
+                "name", name,
+                "nationality", "Peruvian",
+                "birthDate", "1970-01-01",
+                "biography", "Biography revision " + sequence,
+                "email", "author" + sequence + "@mail.com");
+    }
+
+    record Request(String method, String path, Object body) {
+
+        static Request get(String path) {
+            return new Request("GET", path, null);
+        }
+
+        static Request post(String path, Object body) {
+            return new Request("POST", path, body);
+        }
+
+        static Request put(String path, Object body) {
+            return new Request("PUT", path, body);
+        }
+    }
+}
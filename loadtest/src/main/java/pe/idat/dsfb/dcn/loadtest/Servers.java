@@ -0,0 +1,125 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.idat.dsfb.dcn.library.LibraryApplication;
+import pe.idat.dsi.dcn.authserver.AuthserverApplication;
+
+// Boots the authserver and the library in this JVM, each on a random port and its own in-memory H2 database in MySQL
+// mode. Both jars are on one classpath, so every setting is passed as a command line argument: it outranks the other
+// application's config file, and spring.config.location keeps each one from reading the other's.
+class Servers implements AutoCloseable {
+
+    private static final String USERNAME = "loadtester";
+    private static final String PASSWORD = "loadtester-password";
+
+    private final ConfigurableApplicationContext authserver;
+    private final ConfigurableApplicationContext library;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Servers(ConfigurableApplicationContext authserver, ConfigurableApplicationContext library) {
+        this.authserver = authserver;
+        this.library = library;
+    }
+
+    static Servers start(LoadTestOptions options) {
+        ConfigurableApplicationContext authserver = new SpringApplicationBuilder(AuthserverApplication.class).run(
+                "--spring.config.location=classpath:/application.yml",
+                "--server.port=0",
+                // The users table is called user, a keyword in H2
+                "--spring.datasource.url=jdbc:h2:mem:security;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                // The library's JCache provider is on the classpath too, the authserver keeps its plain Caffeine caches
+                "--spring.cache.type=caffeine",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--logging.level.root=WARN");
+
+        List<String> libraryArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:library;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+
+        // An explicit location skips the profile-specific files, so the profile's file is listed instead
+        libraryArgs.add(options.virtualThreads()
+                ? "--spring.config.location=classpath:/application.properties,classpath:/application-virtual-threads.properties"
+                : "--spring.config.location=classpath:/application.properties");
+
+        ConfigurableApplicationContext library = new SpringApplicationBuilder(LibraryApplication.class)
+                .run(libraryArgs.toArray(String[]::new));
+
+        return new Servers(authserver, library);
+    }
+
+    ConfigurableApplicationContext library() {
+        return library;
+    }
+
+    String libraryUrl() {
+        return url(library);
+    }
+
+    // Registers the load test user through the authserver's API and returns the token of its /login response
+    String login(HttpClient httpClient) throws IOException, InterruptedException {
+        String authserverUrl = url(authserver);
+
+        post(httpClient, authserverUrl + "/api/roles", Map.of("name", "ROLE_USER"));
+        post(httpClient, authserverUrl + "/api/users", Map.of(
+                "username", USERNAME,
+                "password", PASSWORD,
+                "enabled", true,
+                "rolesName", List.of("ROLE_USER")));
+
+        JsonNode body = objectMapper.readTree(post(httpClient, authserverUrl + "/login",
+                Map.of("username", USERNAME, "password", PASSWORD)));
+
+        return body.get("token").asText();
+    }
+
+    private String post(HttpClient httpClient, String url, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("POST " + url + " returned " + response.statusCode() + ": " + response.body());
+        }
+
+        return response.body();
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        library.close();
+        authserver.close();
+    }
+}
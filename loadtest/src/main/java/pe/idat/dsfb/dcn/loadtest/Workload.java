@@ -0,0 +1,146 @@
+package pe.idat.dsfb.dcn.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Closed-loop clients on virtual threads, each sends its next request as soon as the previous one is answered. Latency is
+// recorded per operation in nanoseconds, a request is an error when it fails or answers with a 4xx or 5xx.
+class Workload {
+
+    private final HttpClient httpClient;
+    private final String libraryUrl;
+    private final String authorization;
+    private final Catalogue catalogue;
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper;
+    private final List<Operation> reads = new ArrayList<>();
+    private final List<Operation> writes = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    Workload(HttpClient httpClient, String libraryUrl, String token, Catalogue catalogue, LoadTestOptions options,
+            ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.libraryUrl = libraryUrl;
+        this.authorization = "Bearer " + token;
+        this.catalogue = catalogue;
+        this.options = options;
+        this.objectMapper = objectMapper;
+
+        // Each operation appears weight times, picking a random element is then a weighted pick
+        for (Operation operation : Operation.values()) {
+            List<Operation> group = operation.isWrite() ? writes : reads;
+
+            for (int i = 0; i < operation.getWeight(); i++) {
+                group.add(operation);
+            }
+        }
+    }
+
+    Results run(Duration duration) throws InterruptedException {
+        Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        long begin;
+        long end;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            begin = System.nanoTime();
+            long deadline = begin + duration.toNanos();
+
+            for (int i = 0; i < options.clients(); i++) {
+                executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = next(random);
+                        long sent = System.nanoTime();
+
+                        if (send(operation.request(catalogue, random, sequence.incrementAndGet()))) {
+                            latencies.get(operation).recordValue(System.nanoTime() - sent);
+                        } else {
+                            errors.get(operation).increment();
+                        }
+                    }
+
+                    return null;
+                });
+            }
+
+            start.countDown();
+        }
+
+        end = System.nanoTime();
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, latencies.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+
+        return new Results(histograms, errorCounts, Duration.ofNanos(end - begin));
+    }
+
+    private Operation next(ThreadLocalRandom random) {
+        boolean write = !writes.isEmpty() && random.nextInt(100) < options.writePercent();
+        List<Operation> group = write ? writes : reads;
+        return group.get(random.nextInt(group.size()));
+    }
+
+    private boolean send(Operation.Request request) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(libraryUrl + request.path()))
+                    .header("Authorization", authorization)
+                    .timeout(Duration.ofSeconds(30));
+
+            if (request.body() == null) {
+                builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+            } else {
+                builder.header("Content-Type", "application/json")
+                        .method(request.method(), HttpRequest.BodyPublishers.ofByteArray(json(request.body())));
+            }
+
+            HttpResponse<Void> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private byte[] json(Object body) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    record Results(Map<Operation, Histogram> latencies, Map<Operation, Long> errors, Duration elapsed) {
+    }
+}